@@ -26,4 +26,10 @@ public interface ISqlCallback<R, V>
     {
         R exec();
     }
+
+    @FunctionalInterface
+    interface ISqlSupplier<R>
+    {
+        R get() throws Throwable;
+    }
 }
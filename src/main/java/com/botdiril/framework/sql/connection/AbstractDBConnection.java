@@ -4,15 +4,18 @@ import org.intellij.lang.annotations.Language;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import com.botdiril.framework.sql.IDBResource;
 import com.botdiril.framework.sql.ISqlCallback;
 import com.botdiril.framework.sql.ISqlExecuteFunction;
-import com.botdiril.framework.sql.orm.types.EnumDataType;
 import com.botdiril.framework.sql.util.DBException;
-import com.botdiril.framework.sql.util.ParamNull;
 import com.botdiril.framework.sql.util.SqlLogger;
 
 public abstract class AbstractDBConnection implements IDBResource
@@ -20,59 +23,204 @@ public abstract class AbstractDBConnection implements IDBResource
     protected final Connection connection;
     protected final boolean autocommit;
     protected boolean readOnly;
+    protected final StatementCache statementCache;
+    protected final StatementTracer tracer;
+    protected final QueryResultCache queryCache;
+
+    /**
+     * Tables written in the current transaction, invalidated in the query cache on commit.
+     */
+    private Set<String> writtenTables;
+
+    /**
+     * Actions to run once the current transaction commits, discarded on rollback.
+     */
+    private List<Runnable> commitActions;
+
+    /**
+     * Actions to run once the current transaction ends, either way.
+     */
+    private List<Runnable> completionActions;
 
     protected AbstractDBConnection(Connection connection, boolean autocommit, boolean readOnly)
+    {
+        this(connection, autocommit, readOnly, null, StatementTracer.DISABLED, null);
+    }
+
+    protected AbstractDBConnection(Connection connection, boolean autocommit, boolean readOnly, StatementCache statementCache, StatementTracer tracer, QueryResultCache queryCache)
     {
         this.connection = connection;
         this.autocommit = autocommit;
         this.readOnly = readOnly;
+        this.statementCache = statementCache;
+        this.tracer = tracer;
+        this.queryCache = queryCache;
     }
 
-    protected void setParams(PreparedStatement statement, Object... params) throws Exception
+    /**
+     * Records a write for query cache invalidation, immediately when autocommitting or otherwise on commit.
+     */
+    protected void markWritten(@Language("MySQL") String statement)
     {
-        for (int i = 0; i < params.length; i++)
+        if (this.queryCache == null)
+            return;
+
+        var tables = this.queryCache.findTables(statement);
+
+        if (tables.isEmpty())
+            return;
+
+        if (this.autocommit)
         {
-            var param = params[i];
+            this.queryCache.invalidate(tables);
+            return;
+        }
 
-            if (param == null)
-            {
-                throw new IllegalStateException("Parameter can't be raw null!");
-            }
+        if (this.writtenTables == null)
+            this.writtenTables = new HashSet<>();
 
-            int paramIdx = i + 1;
+        this.writtenTables.addAll(tables);
+    }
 
-            if (param instanceof ParamNull paramNull)
-            {
-                statement.setNull(paramIdx, paramNull.type().getJdbcType());
-                continue;
-            }
+    /**
+     * Runs the action immediately when autocommitting, otherwise after the current transaction commits.
+     * The action is discarded when the transaction is rolled back.
+     */
+    public void afterCommit(Runnable action)
+    {
+        if (this.autocommit)
+        {
+            action.run();
+            return;
+        }
 
-            var klass = param.getClass();
-            var type = EnumDataType.getByClass(klass);
+        if (this.commitActions == null)
+            this.commitActions = new ArrayList<>();
 
-            if (type == null)
-                throw new UnsupportedOperationException("Unsupported DB data type.");
+        this.commitActions.add(action);
+    }
 
-            var writer = type.getWriter();
+    /**
+     * Runs the action immediately when autocommitting, otherwise after the current transaction
+     * is committed, rolled back, or rolled back implicitly by closing the connection.
+     */
+    public void afterCompletion(Runnable action)
+    {
+        if (this.autocommit)
+        {
+            action.run();
+            return;
+        }
 
-            if (writer == null)
-                throw new UnsupportedOperationException("Unsupported DB data type.");
+        if (this.completionActions == null)
+            this.completionActions = new ArrayList<>();
+
+        this.completionActions.add(action);
+    }
+
+    private void runCompletionActions()
+    {
+        if (this.completionActions == null || this.completionActions.isEmpty())
+            return;
+
+        var actions = List.copyOf(this.completionActions);
+        this.completionActions.clear();
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Binds the parameters through a binder compiled for this statement and parameter type signature.
+     */
+    protected void bindParams(@Language("MySQL") String statement, PreparedStatement stat, Object... params) throws Exception
+    {
+        if (params.length == 0)
+            return;
+
+        ParamBinder.forStatement(statement, params).bind(stat, params);
+    }
 
-            writer.write(statement, paramIdx, param);
+    /**
+     * Prepares a reusable statement with primitive-specialized binding, the statement should be closed after use.
+     */
+    public SqlStatement prepare(@Language("MySQL") String statement)
+    {
+        return this.prepare(statement, false);
+    }
+
+    public SqlStatement prepare(@Language("MySQL") String statement, boolean generatedKeys)
+    {
+        try
+        {
+            return new SqlStatement(this, statement, generatedKeys, this.prepareStatement(statement, generatedKeys));
+        }
+        catch (SQLException e)
+        {
+            throw new DBException(e);
         }
     }
 
+    protected PreparedStatement prepareStatement(@Language("MySQL") String statement, boolean generatedKeys) throws SQLException
+    {
+        if (this.statementCache == null)
+            return this.connection.prepareStatement(statement, generatedKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
+
+        return this.statementCache.acquire(statement, generatedKeys);
+    }
+
+    protected void releaseStatement(@Language("MySQL") String statement, boolean generatedKeys, PreparedStatement stat, boolean broken) throws SQLException
+    {
+        if (this.statementCache == null || !this.statementCache.release(statement, generatedKeys, stat, broken))
+            stat.close();
+    }
+
     protected <R, V> R executeStatement(boolean generatedKeys, @Language("MySQL") String statement, ISqlExecuteFunction<V> executeMethod, ISqlCallback<R, V> callback, Object... params)
     {
         try
         {
-            try (var stat = this.connection.prepareStatement(statement, generatedKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS))
+            var stat = this.prepareStatement(statement, generatedKeys);
+            var broken = true;
+
+            try
             {
-                this.setParams(stat, params);
+                this.bindParams(statement, stat, params);
 
                 SqlLogger.logStatement(stat);
 
-                return callback.exec(executeMethod.apply(stat));
+                var traced = this.tracer.isEnabled();
+                var start = traced ? System.nanoTime() : 0L;
+
+                V result;
+
+                try
+                {
+                    result = executeMethod.apply(stat);
+                }
+                catch (SQLException e)
+                {
+                    this.tracer.traceError();
+                    throw e;
+                }
+
+                broken = false;
+
+                try
+                {
+                    return callback.exec(result);
+                }
+                finally
+                {
+                    if (traced)
+                        this.tracer.trace(stat, statement, params, System.nanoTime() - start, result);
+
+                    // Cached statements outlive the call, their result sets must not
+                    if (result instanceof ResultSet rs)
+                        rs.close();
+                }
+            }
+            finally
+            {
+                ParamBinder.release(params);
+                this.releaseStatement(statement, generatedKeys, stat, broken);
             }
         }
         catch (Throwable e)
@@ -91,7 +239,15 @@ public abstract class AbstractDBConnection implements IDBResource
     {
         try
         {
-            this.rollback();
+            if (!this.autocommit)
+            {
+                this.connection.rollback();
+
+                if (this.commitActions != null)
+                    this.commitActions.clear();
+
+                this.runCompletionActions();
+            }
 
             this.connection.close();
         }
@@ -106,12 +262,31 @@ public abstract class AbstractDBConnection implements IDBResource
         if (this.autocommit)
             return;
 
+        var metrics = this.tracer.getMetrics();
+
         try
         {
             this.connection.commit();
+            metrics.onCommit();
+
+            if (this.writtenTables != null && !this.writtenTables.isEmpty())
+            {
+                this.queryCache.invalidate(this.writtenTables);
+                this.writtenTables.clear();
+            }
+
+            if (this.commitActions != null && !this.commitActions.isEmpty())
+            {
+                var actions = List.copyOf(this.commitActions);
+                this.commitActions.clear();
+                actions.forEach(Runnable::run);
+            }
+
+            this.runCompletionActions();
         }
         catch (SQLException e)
         {
+            metrics.onTransactionError();
             throw new DBException(e);
         }
     }
@@ -121,12 +296,24 @@ public abstract class AbstractDBConnection implements IDBResource
         if (this.autocommit)
             return;
 
+        var metrics = this.tracer.getMetrics();
+
         try
         {
             this.connection.rollback();
+            metrics.onRollback();
+
+            if (this.writtenTables != null)
+                this.writtenTables.clear();
+
+            if (this.commitActions != null)
+                this.commitActions.clear();
+
+            this.runCompletionActions();
         }
         catch (SQLException e)
         {
+            metrics.onTransactionError();
             throw new DBException(e);
         }
     }
@@ -0,0 +1,75 @@
+package com.botdiril.framework.sql.connection;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Copies BLOB streams through a single chunk-sized buffer, the value is never materialized as a whole on our side.
+ */
+final class BlobTransfer
+{
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private BlobTransfer()
+    {
+    }
+
+    /**
+     * @return the number of bytes copied
+     */
+    static long copy(InputStream source, WritableByteChannel target) throws IOException
+    {
+        var chunk = new byte[CHUNK_SIZE];
+        var buffer = ByteBuffer.wrap(chunk);
+        var total = 0L;
+        int read;
+
+        while ((read = source.read(chunk)) != -1)
+        {
+            buffer.clear().limit(read);
+
+            while (buffer.hasRemaining())
+                target.write(buffer);
+
+            total += read;
+        }
+
+        return total;
+    }
+
+    /**
+     * Reads the whole stream into the remaining space of the buffer.
+     *
+     * @return the number of bytes copied
+     * @throws BufferOverflowException when the value does not fit
+     */
+    static int copy(InputStream source, ByteBuffer target) throws IOException
+    {
+        var start = target.position();
+
+        if (target.hasArray())
+        {
+            var array = target.array();
+            int read;
+
+            while (target.hasRemaining() && (read = source.read(array, target.arrayOffset() + target.position(), target.remaining())) != -1)
+                target.position(target.position() + read);
+        }
+        else
+        {
+            var chunk = new byte[Math.min(CHUNK_SIZE, Math.max(target.remaining(), 1))];
+            int read;
+
+            while (target.hasRemaining() && (read = source.read(chunk, 0, Math.min(chunk.length, target.remaining()))) != -1)
+                target.put(chunk, 0, read);
+        }
+
+        if (!target.hasRemaining() && source.read() != -1)
+            throw new BufferOverflowException();
+
+        return target.position() - start;
+    }
+}
@@ -0,0 +1,95 @@
+package com.botdiril.framework.sql.connection;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.botdiril.framework.sql.ISqlCallback;
+import com.botdiril.framework.sql.orm.column.ColumnInfo;
+import com.botdiril.framework.sql.orm.types.EnumDataType;
+
+/**
+ * Reads one column of a result set by index, with the column index and the extractor resolved once per result set
+ * instead of once per cell.
+ */
+final class ColumnReader<R>
+{
+    private final int index;
+    private final Class<R> valueType;
+    private final EnumDataType.IndexedValueExtractor<Object> extractor;
+
+    private ColumnReader(int index, Class<R> valueType, EnumDataType.IndexedValueExtractor<Object> extractor)
+    {
+        this.index = index;
+        this.valueType = valueType;
+        this.extractor = extractor;
+    }
+
+    /**
+     * A column to read, with its extractor resolved up front.
+     */
+    record Spec<R>(String columnName, Class<R> valueType, EnumDataType.IndexedValueExtractor<Object> extractor)
+    {
+        static <R> Spec<R> of(String columnName, Class<R> valueType)
+        {
+            var extractor = EnumDataType.getIndexedExtractorByClass(valueType);
+
+            if (extractor == null)
+                throw new UnsupportedOperationException(String.format("Unsupported type %s.", valueType.getName()));
+
+            return new Spec<>(columnName, valueType, extractor);
+        }
+
+        static <R> Spec<R> of(ColumnInfo<R> info)
+        {
+            var extractor = info.getIndexedExtractor();
+
+            if (extractor == null)
+                throw new UnsupportedOperationException(String.format("Unsupported type %s.", info.javaType().getName()));
+
+            return new Spec<>(info.name(), info.javaType(), extractor);
+        }
+    }
+
+    static <R> ColumnReader<R> of(ResultSet resultSet, String columnName, Class<R> valueType) throws SQLException
+    {
+        return of(resultSet, Spec.of(columnName, valueType));
+    }
+
+    static <R> ColumnReader<R> of(ResultSet resultSet, Spec<R> spec) throws SQLException
+    {
+        return new ColumnReader<>(resultSet.findColumn(spec.columnName()), spec.valueType(), spec.extractor());
+    }
+
+    /**
+     * Creates a row mapper resolving the reader on the first row, for result sets that are not available up front.
+     */
+    static <R> ISqlCallback<R, ResultSet> rowMapper(Spec<R> spec)
+    {
+        return new ISqlCallback<>() {
+            private ColumnReader<R> reader;
+
+            @Override
+            public R exec(ResultSet resultSet) throws Throwable
+            {
+                if (this.reader == null)
+                    this.reader = ColumnReader.of(resultSet, spec);
+
+                return this.reader.read(resultSet);
+            }
+        };
+    }
+
+    /**
+     * @return the value of the current row, or null for SQL {@code NULL}
+     */
+    R read(ResultSet resultSet) throws SQLException, IOException
+    {
+        var value = this.extractor.extract(resultSet, this.index);
+
+        if (resultSet.wasNull())
+            return null;
+
+        return this.valueType.cast(value);
+    }
+}
@@ -0,0 +1,134 @@
+package com.botdiril.framework.sql.connection;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.botdiril.framework.sql.orm.types.EnumDataType;
+import com.botdiril.framework.sql.util.BlobParam;
+import com.botdiril.framework.sql.util.ParamNull;
+
+/**
+ * Binds statement parameters with writers resolved up front for one parameter type signature.
+ */
+final class ParamBinder
+{
+    /**
+     * Guards against unbounded growth when statements are built dynamically.
+     */
+    private static final int MAX_CACHED_BINDERS = 4096;
+
+    /**
+     * Lookups are lock-free, the bound is enforced approximately by evicting arbitrary binders on insertion.
+     */
+    private static final Map<String, ParamBinder> BINDERS = new ConcurrentHashMap<>();
+
+    private static final EnumDataType.ValueWriter<Object> NULL_WRITER = (statement, idx, value) -> statement.setNull(idx, ((ParamNull) value).type().getJdbcType());
+
+    private static final EnumDataType.ValueWriter<Object> BLOB_WRITER = (statement, idx, value) -> ((BlobParam) value).bind(statement, idx);
+
+    private final Class<?>[] signature;
+    private final EnumDataType.ValueWriter<Object>[] writers;
+
+    private ParamBinder(Class<?>[] signature, EnumDataType.ValueWriter<Object>[] writers)
+    {
+        this.signature = signature;
+        this.writers = writers;
+    }
+
+    static ParamBinder forStatement(String statement, Object[] params)
+    {
+        var binder = BINDERS.get(statement);
+
+        if (binder != null && binder.matches(params))
+            return binder;
+
+        binder = compile(params);
+
+        if (BINDERS.put(statement, binder) == null && BINDERS.size() > MAX_CACHED_BINDERS)
+            evictExcess();
+
+        return binder;
+    }
+
+    private static void evictExcess()
+    {
+        var it = BINDERS.keySet().iterator();
+
+        while (BINDERS.size() > MAX_CACHED_BINDERS && it.hasNext())
+        {
+            it.next();
+            it.remove();
+        }
+    }
+
+    static ParamBinder compile(Object[] params)
+    {
+        var signature = new Class<?>[params.length];
+
+        @SuppressWarnings("unchecked")
+        var writers = (EnumDataType.ValueWriter<Object>[]) new EnumDataType.ValueWriter<?>[params.length];
+
+        for (int i = 0; i < params.length; i++)
+        {
+            var param = params[i];
+
+            if (param == null)
+                throw new IllegalStateException("Parameter can't be raw null!");
+
+            var klass = param.getClass();
+            EnumDataType.ValueWriter<Object> writer;
+
+            if (klass == ParamNull.class)
+                writer = NULL_WRITER;
+            else if (klass == BlobParam.class)
+                writer = BLOB_WRITER;
+            else
+                writer = EnumDataType.getWriterByClass(klass);
+
+            if (writer == null)
+                throw new UnsupportedOperationException("Unsupported DB data type.");
+
+            signature[i] = klass;
+            writers[i] = writer;
+        }
+
+        return new ParamBinder(signature, writers);
+    }
+
+    boolean matches(Object[] params)
+    {
+        if (params.length != this.signature.length)
+            return false;
+
+        for (int i = 0; i < params.length; i++)
+        {
+            var param = params[i];
+
+            if (param == null || param.getClass() != this.signature[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    void bind(PreparedStatement statement, Object[] params) throws IOException, SQLException
+    {
+        for (int i = 0; i < params.length; i++)
+            this.writers[i].write(statement, i + 1, params[i]);
+    }
+
+    /**
+     * Closes the resources opened for streamed parameters, once the statement has been executed.
+     */
+    static void release(Object[] params)
+    {
+        for (var param : params)
+        {
+            if (param instanceof BlobParam blobParam)
+                blobParam.close();
+        }
+    }
+}
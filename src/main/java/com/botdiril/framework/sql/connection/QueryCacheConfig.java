@@ -0,0 +1,32 @@
+package com.botdiril.framework.sql.connection;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * @param maxBytes the estimated heap size the cached results may take up before the least recently used ones are evicted
+ * @param ttl how long a result is served from the cache, bounding the staleness caused by writes outside the framework
+ * @param cacheReplicaReads whether results read from replicas are cached, a lagging replica may return rows from before
+ *                          an invalidating commit, which are then served for up to the whole TTL
+ */
+public record QueryCacheConfig(long maxBytes, Duration ttl, boolean cacheReplicaReads)
+{
+    public QueryCacheConfig
+    {
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("The cache size must be positive.");
+
+        Objects.requireNonNull(ttl);
+
+        if (ttl.isNegative() || ttl.isZero())
+            throw new IllegalArgumentException("The TTL must be positive.");
+    }
+
+    /**
+     * Only caches results read from the primary.
+     */
+    public QueryCacheConfig(long maxBytes, Duration ttl)
+    {
+        this(maxBytes, ttl, false);
+    }
+}
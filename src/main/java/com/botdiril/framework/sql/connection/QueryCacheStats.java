@@ -0,0 +1,49 @@
+package com.botdiril.framework.sql.connection;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class QueryCacheStats
+{
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    QueryCacheStats()
+    {
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    void hit()
+    {
+        this.hits.increment();
+    }
+
+    void miss()
+    {
+        this.misses.increment();
+    }
+
+    public long getHits()
+    {
+        return this.hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return this.misses.sum();
+    }
+
+    public double getHitRatio()
+    {
+        var hits = this.getHits();
+        var total = hits + this.getMisses();
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "query-cache { hits: %d, misses: %d, hit ratio: %.3f }".formatted(this.getHits(), this.getMisses(), this.getHitRatio());
+    }
+}
@@ -0,0 +1,409 @@
+package com.botdiril.framework.sql.connection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.temporal.Temporal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import com.botdiril.framework.sql.util.DBException;
+
+/**
+ * A read-through cache of query results, shared by the read-only connections of a connection manager.
+ *
+ * Entries are keyed by the SQL text, the bound parameters and the shape of the result, they expire after a TTL
+ * and the least recently used ones are evicted once the estimated size of all results exceeds the limit.
+ *
+ * Each entry depends on the known tables its SQL mentions, writes to these tables through a {@link WriteDBConnection}
+ * invalidate the dependent entries once committed. Queries on tables unknown to the cache are only bounded by the TTL.
+ */
+public final class QueryResultCache
+{
+    private static final int MAX_TRACKED_QUERIES = 1024;
+    private static final int MAX_MEMOIZED_STATEMENTS = 4096;
+
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z0-9_$]+");
+
+    private static final ClassValue<MethodHandle[]> RECORD_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle[] computeValue(Class<?> type)
+        {
+            var lookup = MethodHandles.publicLookup();
+
+            return Arrays.stream(type.getRecordComponents())
+                         .map(component -> {
+                             try
+                             {
+                                 return lookup.unreflect(component.getAccessor()).asType(MethodType.methodType(Object.class, Object.class));
+                             }
+                             catch (IllegalAccessException e)
+                             {
+                                 return null;
+                             }
+                         })
+                         .toArray(MethodHandle[]::new);
+        }
+    };
+
+    private static final class Key
+    {
+        private final String statement;
+        private final List<?> shape;
+        private final Object[] params;
+        private final int hash;
+
+        private Key(String statement, List<?> shape, Object[] params)
+        {
+            this.statement = statement;
+            this.shape = shape;
+            this.params = params.clone();
+            this.hash = 31 * (31 * statement.hashCode() + shape.hashCode()) + Arrays.deepHashCode(this.params);
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            return o instanceof Key key && this.hash == key.hash && this.statement.equals(key.statement)
+                && this.shape.equals(key.shape) && Arrays.deepEquals(this.params, key.params);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+    }
+
+    private record Entry(Object value, long bytes, long expiresAt, Set<String> tables)
+    {
+    }
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final boolean cacheReplicaReads;
+
+    private final LinkedHashMap<Key, Entry> entries;
+    private final Map<String, Set<Key>> keysByTable;
+    private long currentBytes;
+
+    /**
+     * Incremented by every invalidation, results read before an invalidation are not cached after it.
+     */
+    private long generation;
+
+    private volatile Set<String> knownTables;
+    private final Map<String, Set<String>> tablesByStatement;
+
+    private final QueryCacheStats totalStats;
+    private final Map<String, QueryCacheStats> statsByStatement;
+
+    QueryResultCache(QueryCacheConfig config)
+    {
+        this.maxBytes = config.maxBytes();
+        this.ttlNanos = config.ttl().toNanos();
+        this.cacheReplicaReads = config.cacheReplicaReads();
+
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.keysByTable = new HashMap<>();
+
+        this.knownTables = Set.of();
+        this.tablesByStatement = new ConcurrentHashMap<>();
+
+        this.totalStats = new QueryCacheStats();
+        this.statsByStatement = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers the tables whose writes invalidate cached results, usually all tables known to the model manager.
+     */
+    public void addKnownTables(Collection<String> tables)
+    {
+        var known = new HashSet<>(this.knownTables);
+        tables.stream()
+              .map(table -> table.toLowerCase(Locale.ROOT))
+              .forEach(known::add);
+
+        this.knownTables = Set.copyOf(known);
+        this.tablesByStatement.clear();
+    }
+
+    /**
+     * @param populate whether a loaded result may be cached, cached results are served either way
+     */
+    @SuppressWarnings("unchecked")
+    <R> R get(String statement, List<?> shape, Object[] params, boolean populate, Supplier<R> loader)
+    {
+        var key = new Key(statement, shape, params);
+        var stats = this.getStats(statement);
+        long generation;
+
+        synchronized (this)
+        {
+            var entry = this.entries.get(key);
+
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0)
+            {
+                stats.hit();
+                this.totalStats.hit();
+                return (R) entry.value;
+            }
+
+            if (entry != null)
+                this.remove(key, entry);
+
+            generation = this.generation;
+        }
+
+        stats.miss();
+        this.totalStats.miss();
+
+        var value = loader.get();
+
+        if (!populate)
+            return value;
+
+        var bytes = ENTRY_OVERHEAD_BYTES + statement.length() * 2L + estimateBytes(params) + estimateBytes(value);
+
+        if (bytes > this.maxBytes)
+            return value;
+
+        var tables = this.findTables(statement);
+
+        synchronized (this)
+        {
+            if (generation != this.generation)
+                return value;
+
+            var previous = this.entries.remove(key);
+
+            if (previous != null)
+                this.unlink(key, previous);
+
+            this.entries.put(key, new Entry(value, bytes, System.nanoTime() + this.ttlNanos, tables));
+            this.currentBytes += bytes;
+
+            for (var table : tables)
+                this.keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+
+            var it = this.entries.entrySet().iterator();
+
+            while (this.currentBytes > this.maxBytes && it.hasNext())
+            {
+                var eldest = it.next();
+                it.remove();
+                this.unlink(eldest.getKey(), eldest.getValue());
+            }
+        }
+
+        return value;
+    }
+
+    synchronized void invalidate(Set<String> tables)
+    {
+        this.generation++;
+
+        for (var table : tables)
+        {
+            var keys = this.keysByTable.remove(table);
+
+            if (keys == null)
+                continue;
+
+            for (var key : keys)
+            {
+                var entry = this.entries.remove(key);
+
+                if (entry != null)
+                    this.unlink(key, entry);
+            }
+        }
+    }
+
+    public synchronized void invalidateAll()
+    {
+        this.generation++;
+        this.entries.clear();
+        this.keysByTable.clear();
+        this.currentBytes = 0;
+    }
+
+    /**
+     * @return the known tables mentioned in the statement, may include false positives such as columns named like a table
+     */
+    Set<String> findTables(String statement)
+    {
+        var tables = this.tablesByStatement.get(statement);
+
+        if (tables != null)
+            return tables;
+
+        var knownTables = this.knownTables;
+        var found = new HashSet<String>();
+        var matcher = IDENTIFIER.matcher(statement);
+
+        while (matcher.find())
+        {
+            var identifier = matcher.group().toLowerCase(Locale.ROOT);
+
+            if (knownTables.contains(identifier))
+                found.add(identifier);
+        }
+
+        tables = Set.copyOf(found);
+
+        if (this.tablesByStatement.size() >= MAX_MEMOIZED_STATEMENTS)
+            this.tablesByStatement.clear();
+
+        this.tablesByStatement.put(statement, tables);
+
+        return tables;
+    }
+
+    private void remove(Key key, Entry entry)
+    {
+        this.entries.remove(key);
+        this.unlink(key, entry);
+    }
+
+    private void unlink(Key key, Entry entry)
+    {
+        this.currentBytes -= entry.bytes;
+
+        for (var table : entry.tables)
+        {
+            var keys = this.keysByTable.get(table);
+
+            if (keys == null)
+                continue;
+
+            keys.remove(key);
+
+            if (keys.isEmpty())
+                this.keysByTable.remove(table);
+        }
+    }
+
+    private QueryCacheStats getStats(String statement)
+    {
+        var stats = this.statsByStatement.get(statement);
+
+        if (stats != null)
+            return stats;
+
+        // Past the limit, dynamically built statements only count towards the total
+        if (this.statsByStatement.size() >= MAX_TRACKED_QUERIES)
+            return new QueryCacheStats();
+
+        return this.statsByStatement.computeIfAbsent(statement, s -> new QueryCacheStats());
+    }
+
+    public QueryCacheStats getTotalStats()
+    {
+        return this.totalStats;
+    }
+
+    /**
+     * @return the hit and miss counts of each cached statement, for tuning the cache per query
+     */
+    public Map<String, QueryCacheStats> getStatsByStatement()
+    {
+        return Collections.unmodifiableMap(this.statsByStatement);
+    }
+
+    boolean isCachingReplicaReads()
+    {
+        return this.cacheReplicaReads;
+    }
+
+    public synchronized int size()
+    {
+        return this.entries.size();
+    }
+
+    public synchronized long getEstimatedBytes()
+    {
+        return this.currentBytes;
+    }
+
+    /**
+     * A rough estimate of the retained heap size, good enough to bound the cache.
+     */
+    private static long estimateBytes(Object value)
+    {
+        if (value == null)
+            return 0;
+
+        if (value instanceof String str)
+            return 40 + str.length() * 2L;
+
+        if (value instanceof byte[] bytes)
+            return 16 + bytes.length;
+
+        if (value instanceof Object[] array)
+        {
+            var bytes = 16L + array.length * 8L;
+
+            for (var element : array)
+                bytes += estimateBytes(element);
+
+            return bytes;
+        }
+
+        if (value instanceof Optional<?> optional)
+            return 16 + estimateBytes(optional.orElse(null));
+
+        if (value instanceof Collection<?> collection)
+        {
+            var bytes = 48L;
+
+            for (var element : collection)
+                bytes += 8 + estimateBytes(element);
+
+            return bytes;
+        }
+
+        if (value instanceof Map<?, ?> map)
+        {
+            var bytes = 64L;
+
+            for (var entry : map.entrySet())
+                bytes += 32 + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+
+            return bytes;
+        }
+
+        if (value instanceof Record record)
+        {
+            var bytes = 16L;
+
+            for (var accessor : RECORD_ACCESSORS.get(record.getClass()))
+            {
+                bytes += 8;
+
+                if (accessor == null)
+                    continue;
+
+                try
+                {
+                    bytes += estimateBytes(accessor.invokeExact((Object) record));
+                }
+                catch (Throwable e)
+                {
+                    throw new DBException(e);
+                }
+            }
+
+            return bytes;
+        }
+
+        if (value instanceof Number || value instanceof Boolean || value instanceof Temporal)
+            return 24;
+
+        return 64;
+    }
+}
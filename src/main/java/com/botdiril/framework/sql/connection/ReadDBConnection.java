@@ -1,37 +1,63 @@
 package com.botdiril.framework.sql.connection;
 
-import com.mysql.cj.MysqlType;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
-import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.function.Function;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.botdiril.framework.sql.ISqlCallback;
+import com.botdiril.framework.sql.connection.columnar.ColumnarBatch;
+import com.botdiril.framework.sql.connection.metrics.StatementKind;
 import com.botdiril.framework.sql.orm.ModelColumn;
 import com.botdiril.framework.sql.orm.types.EnumDataType;
 import com.botdiril.framework.sql.util.DBException;
+import com.botdiril.framework.sql.util.LongLongMap;
+import com.botdiril.framework.sql.util.LongObjectMap;
+import com.botdiril.framework.sql.util.SqlLogger;
 
 public class ReadDBConnection extends AbstractDBConnection
 {
-    ReadDBConnection(Connection connection, boolean autocommit)
+    /**
+     * Makes MySQL stream the result set row by row instead of buffering it.
+     */
+    public static final int STREAM_ROW_BY_ROW = Integer.MIN_VALUE;
+
+    /**
+     * Whether the connection reads from a replica, which may lag behind the primary.
+     */
+    private final boolean replica;
+
+    ReadDBConnection(Connection connection, boolean autocommit, StatementCache statementCache, StatementTracer tracer, QueryResultCache queryCache, boolean replica)
     {
-        super(connection, autocommit, true);
+        super(connection, autocommit, true, statementCache, tracer, queryCache);
+        this.replica = replica;
     }
 
     protected ReadDBConnection(Connection connection, boolean autocommit, boolean readOnly)
     {
         super(connection, autocommit, readOnly);
+        this.replica = false;
+    }
+
+    protected ReadDBConnection(Connection connection, boolean autocommit, boolean readOnly, StatementCache statementCache, StatementTracer tracer, QueryResultCache queryCache)
+    {
+        super(connection, autocommit, readOnly, statementCache, tracer, queryCache);
+        this.replica = false;
     }
 
     public static ReadDBConnection fromExisting(Connection c)
@@ -46,41 +72,60 @@ public class ReadDBConnection extends AbstractDBConnection
         }
     }
 
+    /**
+     * @return whether the connection reads from a replica, whose results may predate recent writes
+     */
+    public boolean isReplica()
+    {
+        return this.replica;
+    }
+
     /// Single value retrieval
 
     protected <R> Optional<R> retrieveValue(ResultSet resultSet, String columnName, Class<R> valueType) throws SQLException, IOException
     {
-        var type = EnumDataType.getByClass(valueType);
-        var extractor = type.getExtractor();
+        return Optional.ofNullable(ColumnReader.of(resultSet, columnName, valueType).read(resultSet));
+    }
 
-        if (extractor == null)
-            throw new UnsupportedOperationException(String.format("Unsupported type %s.", valueType.getName()));
+    /// Query result caching
 
-        var val = extractor.extract(resultSet, columnName);
+    /**
+     * Serves the query from the query cache when this is a read-only connection and the cache is enabled.
+     * Cached results are shared between callers and must not be modified.
+     *
+     * @param shape identifies how the result is built from the result set, as part of the cache key
+     */
+    private <R> R cachedQuery(List<?> shape, @Language("MySQL") String statement, ISqlCallback<R, ResultSet> callback, Object... params)
+    {
+        if (this.queryCache == null || !this.readOnly)
+            return this.query(statement, callback, params);
 
-        return resultSet.wasNull() ? Optional.empty() : Optional.of(valueType.cast(val));
+        // Replica results may predate the last invalidation, so they are only cached when allowed explicitly
+        var populate = !this.replica || this.queryCache.isCachingReplicaReads();
+
+        return this.queryCache.get(statement, shape, params, populate, () -> this.query(statement, callback, params));
     }
 
     /// Non-ORM retrieval
 
     public <R> @NotNull Optional<R> getValue(@Language("MySQL") String statement, String columnName, Class<R> valueType, Object... params)
     {
-        return this.query(statement, rs -> {
+        return this.getValue(statement, ColumnReader.Spec.of(columnName, valueType), params);
+    }
+
+    private <R> Optional<R> getValue(@Language("MySQL") String statement, ColumnReader.Spec<R> column, Object... params)
+    {
+        return this.cachedQuery(List.of("value", column), statement, rs -> {
             if (!rs.next())
                 return Optional.empty();
 
-            return this.retrieveValue(rs, columnName, valueType);
+            return Optional.ofNullable(ColumnReader.of(rs, column).read(rs));
         }, params);
     }
 
     public <R> R getValueOr(@Language("MySQL") String statement, String columnName, Class<R> valueType, R fallbackValue, Object... params)
     {
-        return this.query(statement, rs -> {
-            if (!rs.next())
-                return fallbackValue;
-
-            return this.retrieveValue(rs, columnName, valueType).orElse(fallbackValue);
-        }, params);
+        return this.getValue(statement, columnName, valueType, params).orElse(fallbackValue);
     }
 
     public <R> R getValueOrNull(@Language("MySQL") String statement, String columnName, Class<R> valueType, Object... params)
@@ -90,18 +135,24 @@ public class ReadDBConnection extends AbstractDBConnection
 
     public <R> List<R> getList(@Language("MySQL") String statement, String columnName, Class<R> valueType, Object... params)
     {
-        return this.query(statement, rs -> {
+        return this.getList(statement, ColumnReader.Spec.of(columnName, valueType), params);
+    }
+
+    private <R> List<R> getList(@Language("MySQL") String statement, ColumnReader.Spec<R> column, Object... params)
+    {
+        return this.cachedQuery(List.of("list", column), statement, rs -> {
+            var reader = ColumnReader.of(rs, column);
             var resultList = new ArrayList<R>();
-            Optional<R> val;
+            R val;
 
             while (rs.next())
             {
-                val = this.retrieveValue(rs, columnName, valueType);
+                val = reader.read(rs);
 
-                if (val.isEmpty())
+                if (val == null)
                     continue;
 
-                resultList.add(val.get());
+                resultList.add(val);
             }
 
             return Collections.unmodifiableList(resultList);
@@ -110,20 +161,25 @@ public class ReadDBConnection extends AbstractDBConnection
 
     public <KT, VT> Map<KT, VT> getMap(@Language("MySQL") String statement, String keyColumn, Class<KT> keyType, String valueColumn, Class<VT> valueType, Object... params)
     {
-        return this.query(statement, rs -> {
+        return this.getMap(statement, ColumnReader.Spec.of(keyColumn, keyType), ColumnReader.Spec.of(valueColumn, valueType), params);
+    }
+
+    private <KT, VT> Map<KT, VT> getMap(@Language("MySQL") String statement, ColumnReader.Spec<KT> keyColumn, ColumnReader.Spec<VT> valueColumn, Object... params)
+    {
+        return this.cachedQuery(List.of("map", keyColumn, valueColumn), statement, rs -> {
+            var keyReader = ColumnReader.of(rs, keyColumn);
+            var valueReader = ColumnReader.of(rs, valueColumn);
             var resultList = new HashMap<KT, VT>();
-            Optional<KT> key;
-            Optional<VT> val;
+            KT key;
 
             while (rs.next())
             {
-                key = this.retrieveValue(rs, keyColumn, keyType);
-                val = this.retrieveValue(rs, valueColumn, valueType);
+                key = keyReader.read(rs);
 
-                if (key.isEmpty())
+                if (key == null)
                     continue;
 
-                resultList.put(key.get(), val.orElse(null));
+                resultList.put(key, valueReader.read(rs));
             }
 
             return Collections.unmodifiableMap(resultList);
@@ -136,61 +192,242 @@ public class ReadDBConnection extends AbstractDBConnection
             if (!rs.next())
                 return Optional.empty();
 
-            var rd = new RowData();
+            return Optional.of(RowSchema.of(rs.getMetaData()).read(rs));
+        }, params);
+    }
+
+    /**
+     * Reads all rows of an ad-hoc query, the rows share one {@link RowSchema}.
+     */
+    public List<RowData> getRows(@Language("MySQL") String statement, Object... params)
+    {
+        return this.query(statement, rs -> {
+            var schema = RowSchema.of(rs.getMetaData());
+            var resultList = new ArrayList<RowData>();
+
+            while (rs.next())
+                resultList.add(schema.read(rs));
 
-            var meta = rs.getMetaData();
-            var colCount = meta.getColumnCount();
+            return Collections.unmodifiableList(resultList);
+        }, params);
+    }
 
-            for (int i = 1; i <= colCount; i++)
+    public <KT, VT> List<Pair<KT, VT>> getPairs(@Language("MySQL") String statement, String keyColumn, Class<KT> keyType, String valueColumn, Class<VT> valueType, Object... params)
+    {
+        return this.getPairs(statement, ColumnReader.Spec.of(keyColumn, keyType), ColumnReader.Spec.of(valueColumn, valueType), params);
+    }
+
+    private <KT, VT> List<Pair<KT, VT>> getPairs(@Language("MySQL") String statement, ColumnReader.Spec<KT> keyColumn, ColumnReader.Spec<VT> valueColumn, Object... params)
+    {
+        return this.query(statement, rs -> {
+            var keyReader = ColumnReader.of(rs, keyColumn);
+            var valueReader = ColumnReader.of(rs, valueColumn);
+            var resultList = new ArrayList<Pair<KT, VT>>();
+
+            while (rs.next())
+                resultList.add(ImmutablePair.of(keyReader.read(rs), valueReader.read(rs)));
+
+            return resultList;
+        }, params);
+    }
+
+    /// Primitive retrieval
+    ///
+    /// These read columns by index without boxing or Optional, for scans too large for the boxed collections.
+    /// The results are mutable and never served from the query cache.
+
+    /**
+     * Null values are skipped, like in {@link #getList(String, String, Class, Object...)}.
+     */
+    public long[] getLongArray(@Language("MySQL") String statement, String columnName, Object... params)
+    {
+        return this.query(statement, rs -> {
+            var column = rs.findColumn(columnName);
+            var result = new long[16];
+            var size = 0;
+
+            while (rs.next())
             {
-                var col = meta.getColumnType(i);
-                var colName = meta.getColumnName(i);
+                var value = rs.getLong(column);
+
+                if (rs.wasNull())
+                    continue;
+
+                if (size == result.length)
+                    result = Arrays.copyOf(result, size * 2);
+
+                result[size++] = value;
+            }
+
+            return Arrays.copyOf(result, size);
+        }, params);
+    }
+
+    /**
+     * Null values are skipped, like in {@link #getList(String, String, Class, Object...)}.
+     */
+    public int[] getIntArray(@Language("MySQL") String statement, String columnName, Object... params)
+    {
+        return this.query(statement, rs -> {
+            var column = rs.findColumn(columnName);
+            var result = new int[16];
+            var size = 0;
 
-                var mysqlType = MysqlType.getByJdbcType(col);
+            while (rs.next())
+            {
+                var value = rs.getInt(column);
 
-                if (mysqlType == MysqlType.UNKNOWN)
+                if (rs.wasNull())
                     continue;
 
-                var dataType = EnumDataType.getByJDBC(mysqlType);
+                if (size == result.length)
+                    result = Arrays.copyOf(result, size * 2);
+
+                result[size++] = value;
+            }
+
+            return Arrays.copyOf(result, size);
+        }, params);
+    }
+
+    /**
+     * Rows with a null key are skipped, null values are kept and reported by {@link LongLongMap#isNull(long)}.
+     */
+    public LongLongMap getLongToLongMap(@Language("MySQL") String statement, String keyColumn, String valueColumn, Object... params)
+    {
+        return this.query(statement, rs -> {
+            var keyIdx = rs.findColumn(keyColumn);
+            var valueIdx = rs.findColumn(valueColumn);
+            var result = new LongLongMap();
+
+            while (rs.next())
+            {
+                var key = rs.getLong(keyIdx);
 
-                if (dataType == null)
+                if (rs.wasNull())
                     continue;
 
-                var extractor = dataType.getExtractor();
+                var value = rs.getLong(valueIdx);
+
+                if (rs.wasNull())
+                    result.putNull(key);
+                else
+                    result.put(key, value);
+            }
+
+            return result;
+        }, params);
+    }
+
+    /**
+     * Rows with a null key are skipped, null values are kept.
+     */
+    public <VT> LongObjectMap<VT> getLongToObjectMap(@Language("MySQL") String statement, String keyColumn, String valueColumn, Class<VT> valueType, Object... params)
+    {
+        var extractor = EnumDataType.getIndexedExtractorByClass(valueType);
 
-                if (extractor == null)
-                    throw new UnsupportedOperationException(String.format("Unsupported type %s.", mysqlType.getName()));
+        if (extractor == null)
+            throw new UnsupportedOperationException(String.format("Unsupported type %s.", valueType.getName()));
 
-                var val = extractor.extract(rs, colName);
+        return this.query(statement, rs -> {
+            var keyIdx = rs.findColumn(keyColumn);
+            var valueIdx = rs.findColumn(valueColumn);
+            var result = new LongObjectMap<VT>();
 
-                var rootKlass = dataType.getRootClass();
+            while (rs.next())
+            {
+                var key = rs.getLong(keyIdx);
 
-                var value = rs.wasNull() ? Optional.empty() : Optional.of(val);
+                if (rs.wasNull())
+                    continue;
 
-                rd.add(colName, rootKlass, value.map(rootKlass::cast));
+                var value = extractor.extract(rs, valueIdx);
+                result.put(key, rs.wasNull() ? null : valueType.cast(value));
             }
 
-            return Optional.of(rd);
+            return result;
         }, params);
     }
 
-    public <KT, VT> List<Pair<KT, VT>> getPairs(@Language("MySQL") String statement, String keyColumn, Class<KT> keyType, String valueColumn, Class<VT> valueType, Object... params)
+    /// Columnar retrieval
+
+    /**
+     * Reads the whole result into a column-oriented batch, for analytical queries aggregated in Java.
+     * The batch is never served from the query cache.
+     */
+    public ColumnarBatch getColumnar(@Language("MySQL") String statement, Object... params)
+    {
+        return this.query(statement, ColumnarBatch::read, params);
+    }
+
+    /// BLOB retrieval
+    ///
+    /// The value is copied through one chunk-sized buffer. Note the driver still holds the whole row it received.
+
+    /**
+     * Copies the BLOB of the first row into the channel.
+     *
+     * @return the number of bytes copied, or -1 when there is no row or the value is null
+     */
+    public long readBlob(@Language("MySQL") String statement, String columnName, WritableByteChannel target, Object... params)
     {
         return this.query(statement, rs -> {
-            var resultList = new ArrayList<Pair<KT, VT>>();
+            if (!rs.next())
+                return -1L;
 
-            Optional<KT> key;
-            Optional<VT> val;
+            try (var stream = rs.getBinaryStream(columnName))
+            {
+                if (stream == null)
+                    return -1L;
 
-            while (rs.next())
+                return BlobTransfer.copy(stream, target);
+            }
+        }, params);
+    }
+
+    /**
+     * Reads the BLOB of the first row into the remaining space of the buffer, advancing its position.
+     *
+     * @return the number of bytes read, or -1 when there is no row or the value is null
+     * @throws DBException wrapping a {@link java.nio.BufferOverflowException} when the value does not fit
+     */
+    public int readBlob(@Language("MySQL") String statement, String columnName, ByteBuffer target, Object... params)
+    {
+        return this.query(statement, rs -> {
+            if (!rs.next())
+                return -1;
+
+            try (var stream = rs.getBinaryStream(columnName))
             {
-                key = this.retrieveValue(rs, keyColumn, keyType);
-                val = this.retrieveValue(rs, valueColumn, valueType);
+                if (stream == null)
+                    return -1;
 
-                resultList.add(ImmutablePair.of(key.orElse(null), val.orElse(null)));
+                return BlobTransfer.copy(stream, target);
             }
+        }, params);
+    }
 
-            return resultList;
+    /**
+     * Writes the BLOB of the first row into a file, replacing it. No file is created when there is no value.
+     *
+     * @return the number of bytes written, or -1 when there is no row or the value is null
+     */
+    public long readBlob(@Language("MySQL") String statement, String columnName, Path target, Object... params)
+    {
+        return this.query(statement, rs -> {
+            if (!rs.next())
+                return -1L;
+
+            try (var stream = rs.getBinaryStream(columnName))
+            {
+                if (stream == null)
+                    return -1L;
+
+                try (var channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))
+                {
+                    return BlobTransfer.copy(stream, channel);
+                }
+            }
         }, params);
     }
 
@@ -198,85 +435,46 @@ public class ReadDBConnection extends AbstractDBConnection
 
     public <R> @NotNull Optional<R> getValue(@Language("MySQL") String statement, ModelColumn<R> column, Object... params)
     {
-        var info = column.getInfo();
-        return this.getValue(statement, info.name(), info.javaType(), params);
+        return this.getValue(statement, ColumnReader.Spec.of(column.getInfo()), params);
     }
 
     public <R> R getValueOr(@Language("MySQL") String statement, ModelColumn<R> column, R fallbackValue, Object... params)
     {
-        var info = column.getInfo();
-        return this.getValueOr(statement, info.name(), info.javaType(), fallbackValue, params);
+        return this.getValue(statement, column, params).orElse(fallbackValue);
     }
 
     public <R> R getValueOrNull(@Language("MySQL") String statement, ModelColumn<R> column, Object... params)
     {
-        var info = column.getInfo();
-        return this.getValueOrNull(statement, info.name(), info.javaType(), params);
+        return this.getValueOr(statement, column, null, params);
     }
 
     public <R> List<R> getList(@Language("MySQL") String statement, ModelColumn<R> column, Object... params)
     {
-        var info = column.getInfo();
-        return this.getList(statement, info.name(), info.javaType(), params);
+        return this.getList(statement, ColumnReader.Spec.of(column.getInfo()), params);
     }
 
     public <KT, VT> Map<KT, VT> getMap(@Language("MySQL") String statement, ModelColumn<KT> keyColumn, ModelColumn<VT> valueColumn, Object... params)
     {
-        var keyInfo = keyColumn.getInfo();
-        var valueInfo = valueColumn.getInfo();
-        return this.getMap(statement, keyInfo.name(), keyInfo.javaType(), valueInfo.name(), valueInfo.javaType(), params);
+        return this.getMap(statement, ColumnReader.Spec.of(keyColumn.getInfo()), ColumnReader.Spec.of(valueColumn.getInfo()), params);
     }
 
     public <KT, VT> List<Pair<KT, VT>> getPairs(@Language("MySQL") String statement, ModelColumn<KT> leftColumn, ModelColumn<VT> rightColumn, Object... params)
     {
-        var leftInfo = leftColumn.getInfo();
-        var rightInfo = rightColumn.getInfo();
-        return this.getPairs(statement, leftInfo.name(), leftInfo.javaType(), rightInfo.name(), rightInfo.javaType(), params);
+        return this.getPairs(statement, ColumnReader.Spec.of(leftColumn.getInfo()), ColumnReader.Spec.of(rightColumn.getInfo()), params);
     }
 
     /// Reflective record automatic databinding
 
     private <R extends Record> @NotNull ISqlCallback<R, ResultSet> createRecordExtractor(Class<R> recordType)
     {
-        var components = recordType.getRecordComponents();
-
-        Class<?>[] paramTypes = Arrays.stream(components)
-                                      .map(RecordComponent::getType)
-                                      .toArray(Class<?>[]::new);
-
-        var lookup = MethodHandles.publicLookup();
-
-        try
-        {
-            var ctor = lookup.findConstructor(recordType, MethodType.methodType(void.class, paramTypes));
-
-            Function<RecordComponent, ISqlCallback<?, ResultSet>> valueExtractor = comp -> rs -> this.retrieveValue(rs, comp.getName(), comp.getType()).orElse(null);
-
-            var valueExtractors = Arrays.stream(components)
-                                        .sequential()
-                                        .map(valueExtractor)
-                                        .toList();
-
-            return (rs) -> {
-                var args = valueExtractors.stream()
-                                          .map(ext -> ext.partialUnchecked(rs))
-                                          .map(ISqlCallback.ISqlConsumerUnchecked::exec)
-                                          .toList();
-
-                return recordType.cast(ctor.invokeWithArguments(args));
-            };
-        }
-        catch (ReflectiveOperationException e)
-        {
-            throw new IllegalArgumentException(e);
-        }
+        return RecordMapper.of(recordType).newExtractor();
     }
 
     public <R extends Record> @NotNull Optional<R> getRecord(@Language("MySQL") String statement, Class<R> recordType, Object... params)
     {
         var recordExtractor = createRecordExtractor(recordType);
 
-        return this.query(statement, rs -> {
+        return this.cachedQuery(List.of("record", recordType), statement, rs -> {
             if (!rs.next())
                 return Optional.empty();
 
@@ -286,21 +484,14 @@ public class ReadDBConnection extends AbstractDBConnection
 
     public <R extends Record> R getRecordOr(@Language("MySQL") String statement, Class<R> recordType, R fallbackValue, Object... params)
     {
-        var recordExtractor = createRecordExtractor(recordType);
-
-        return this.query(statement, rs -> {
-            if (!rs.next())
-                return fallbackValue;
-
-            return recordExtractor.exec(rs);
-        }, params);
+        return this.getRecord(statement, recordType, params).orElse(fallbackValue);
     }
 
     public <R extends Record> List<R> getRecordList(@Language("MySQL") String statement, Class<R> recordType, Object... params)
     {
         var recordExtractor = createRecordExtractor(recordType);
 
-        return this.query(statement, rs -> {
+        return this.cachedQuery(List.of("recordList", recordType), statement, rs -> {
             var resultList = new ArrayList<R>();
 
             while (rs.next())
@@ -310,6 +501,149 @@ public class ReadDBConnection extends AbstractDBConnection
         }, params);
     }
 
+    /// Streaming retrieval
+
+    public <R> Stream<R> stream(@Language("MySQL") String statement, String columnName, Class<R> valueType, Object... params)
+    {
+        return this.stream(statement, STREAM_ROW_BY_ROW, columnName, valueType, params);
+    }
+
+    public <R> Stream<R> stream(@Language("MySQL") String statement, int fetchSize, String columnName, Class<R> valueType, Object... params)
+    {
+        return this.streamQuery(statement, fetchSize, ColumnReader.rowMapper(ColumnReader.Spec.of(columnName, valueType)), params)
+                   .filter(Objects::nonNull);
+    }
+
+    public <R> Stream<R> stream(@Language("MySQL") String statement, ModelColumn<R> column, Object... params)
+    {
+        return this.streamQuery(statement, STREAM_ROW_BY_ROW, ColumnReader.rowMapper(ColumnReader.Spec.of(column.getInfo())), params)
+                   .filter(Objects::nonNull);
+    }
+
+    /**
+     * Streams the rows of an ad-hoc query row by row, there is no fetch size overload as it would be ambiguous with an int parameter.
+     */
+    public Stream<RowData> streamRows(@Language("MySQL") String statement, Object... params)
+    {
+        return this.streamQuery(statement, STREAM_ROW_BY_ROW, RowSchema.rowMapper(), params);
+    }
+
+    public <R extends Record> Stream<R> streamRecords(@Language("MySQL") String statement, Class<R> recordType, Object... params)
+    {
+        return this.streamRecords(statement, STREAM_ROW_BY_ROW, recordType, params);
+    }
+
+    public <R extends Record> Stream<R> streamRecords(@Language("MySQL") String statement, int fetchSize, Class<R> recordType, Object... params)
+    {
+        var recordExtractor = createRecordExtractor(recordType);
+
+        return this.streamQuery(statement, fetchSize, recordExtractor, params);
+    }
+
+    /**
+     * Lazily maps every row of the result set. The statement stays open until the stream is closed,
+     * so the stream should be used in a try-with-resources block.
+     *
+     * With {@link #STREAM_ROW_BY_ROW}, MySQL sends the rows one by one, but the connection cannot
+     * execute any other statement until the stream is closed. A positive fetch size
+     * only takes effect with server-side cursors ({@code useCursorFetch}), otherwise the result is buffered.
+     */
+    public <R> Stream<R> streamQuery(@Language("MySQL") String statement, int fetchSize, ISqlCallback<R, ResultSet> rowMapper, Object... params)
+    {
+        try
+        {
+            var stat = this.connection.prepareStatement(statement, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+
+            try
+            {
+                stat.setFetchSize(fetchSize);
+
+                this.bindParams(statement, stat, params);
+
+                SqlLogger.logStatement(stat);
+
+                var tracer = this.tracer;
+                var traced = tracer.isEnabled();
+                var start = traced ? System.nanoTime() : 0L;
+
+                ResultSet rs;
+
+                try
+                {
+                    rs = stat.executeQuery();
+                }
+                catch (SQLException e)
+                {
+                    tracer.traceError();
+                    throw e;
+                }
+                finally
+                {
+                    ParamBinder.release(params);
+                }
+
+                var spliterator = new Spliterators.AbstractSpliterator<R>(Long.MAX_VALUE, Spliterator.ORDERED) {
+                    private long rows;
+                    private boolean failed;
+
+                    @Override
+                    public boolean tryAdvance(Consumer<? super R> action)
+                    {
+                        try
+                        {
+                            if (!rs.next())
+                                return false;
+
+                            action.accept(rowMapper.exec(rs));
+                            this.rows++;
+
+                            return true;
+                        }
+                        catch (SQLException e)
+                        {
+                            tracer.traceError();
+                            this.failed = true;
+                            throw new DBException(e);
+                        }
+                        catch (Throwable e)
+                        {
+                            throw new DBException(e);
+                        }
+                    }
+                };
+
+                // The query is timed until the stream is closed, since the rows are fetched while it is consumed
+                return StreamSupport.stream(spliterator, false).onClose(() -> {
+                    try
+                    {
+                        if (traced && !spliterator.failed)
+                            tracer.trace(stat, statement, params, StatementKind.QUERY, System.nanoTime() - start, spliterator.rows);
+                    }
+                    finally
+                    {
+                        try
+                        {
+                            stat.close();
+                        }
+                        catch (SQLException e)
+                        {
+                            throw new DBException(e);
+                        }
+                    }
+                });
+            }
+            catch (Throwable e)
+            {
+                stat.close();
+                throw e;
+            }
+        }
+        catch (Throwable e)
+        {
+            throw new DBException(e);
+        }
+    }
+
     public <R> R query(@Language("MySQL") String statement, ISqlCallback<R, ResultSet> callback, Object... params)
     {
         return this.executeStatement(statement, PreparedStatement::executeQuery, callback, params);
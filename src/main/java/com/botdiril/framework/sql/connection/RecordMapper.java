@@ -0,0 +1,145 @@
+package com.botdiril.framework.sql.connection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import com.botdiril.framework.sql.ISqlCallback;
+import com.botdiril.framework.sql.orm.types.EnumCodec;
+import com.botdiril.framework.sql.orm.types.EnumDataType;
+
+/**
+ * Maps result set rows onto the canonical constructor of a record.
+ *
+ * The reflective work is done once per record class, column indices are resolved once per result set.
+ */
+final class RecordMapper<R extends Record>
+{
+    private static final ClassValue<RecordMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected RecordMapper<?> computeValue(Class<?> type)
+        {
+            return new RecordMapper<>(type.asSubclass(Record.class));
+        }
+    };
+
+    private final Class<R> recordType;
+    private final String[] componentNames;
+    private final EnumDataType.IndexedValueExtractor<Object>[] extractors;
+
+    /**
+     * The canonical constructor, adapted to {@code (Object[]) -> Object}.
+     */
+    private final MethodHandle constructor;
+
+    private RecordMapper(Class<R> recordType)
+    {
+        this.recordType = recordType;
+
+        var components = recordType.getRecordComponents();
+
+        this.componentNames = Arrays.stream(components)
+                                    .map(RecordComponent::getName)
+                                    .toArray(String[]::new);
+
+        @SuppressWarnings("unchecked")
+        var extractorArray = (EnumDataType.IndexedValueExtractor<Object>[]) new EnumDataType.IndexedValueExtractor<?>[components.length];
+        this.extractors = extractorArray;
+
+        for (int i = 0; i < components.length; i++)
+        {
+            var componentType = components[i].getType();
+            var extractor = componentType == EnumSet.class ? getSetExtractor(components[i]) : EnumDataType.getIndexedExtractorByClass(componentType);
+
+            if (extractor == null)
+                throw new UnsupportedOperationException(String.format("Unsupported type %s.", componentType.getName()));
+
+            this.extractors[i] = extractor;
+        }
+
+        Class<?>[] paramTypes = Arrays.stream(components)
+                                      .map(RecordComponent::getType)
+                                      .toArray(Class<?>[]::new);
+
+        try
+        {
+            var ctor = MethodHandles.publicLookup().findConstructor(recordType, MethodType.methodType(void.class, paramTypes));
+
+            this.constructor = ctor.asSpreader(Object[].class, paramTypes.length)
+                                   .asType(MethodType.methodType(Object.class, Object[].class));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * The element type of an {@code EnumSet<E>} component is only known from its generic signature.
+     */
+    private static EnumDataType.IndexedValueExtractor<Object> getSetExtractor(RecordComponent component)
+    {
+        if (component.getGenericType() instanceof ParameterizedType type && type.getActualTypeArguments()[0] instanceof Class<?> elementType)
+            return EnumCodec.forClass(elementType).getSetExtractor();
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <R extends Record> RecordMapper<R> of(Class<R> recordType)
+    {
+        return (RecordMapper<R>) MAPPERS.get(recordType);
+    }
+
+    /**
+     * Creates an extractor, which resolves the column indices on the first row of every result set it encounters.
+     */
+    ISqlCallback<R, ResultSet> newExtractor()
+    {
+        return new ISqlCallback<>() {
+            private ResultSet boundResultSet;
+            private int[] columnIndices;
+
+            @Override
+            public R exec(ResultSet resultSet) throws Throwable
+            {
+                if (resultSet != this.boundResultSet)
+                {
+                    this.columnIndices = RecordMapper.this.resolveColumns(resultSet);
+                    this.boundResultSet = resultSet;
+                }
+
+                return RecordMapper.this.map(resultSet, this.columnIndices);
+            }
+        };
+    }
+
+    private int[] resolveColumns(ResultSet resultSet) throws SQLException
+    {
+        var indices = new int[this.componentNames.length];
+
+        for (int i = 0; i < indices.length; i++)
+            indices[i] = resultSet.findColumn(this.componentNames[i]);
+
+        return indices;
+    }
+
+    private R map(ResultSet resultSet, int[] columnIndices) throws Throwable
+    {
+        var args = new Object[columnIndices.length];
+
+        for (int i = 0; i < args.length; i++)
+        {
+            var value = this.extractors[i].extract(resultSet, columnIndices[i]);
+            args[i] = resultSet.wasNull() ? null : value;
+        }
+
+        return this.recordType.cast((Object) this.constructor.invokeExact(args));
+    }
+}
@@ -0,0 +1,46 @@
+package com.botdiril.framework.sql.connection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket shared by all transactions of a connection manager.
+ *
+ * Every transaction deposits a fraction of a retry and every retry withdraws a whole one,
+ * so a database that keeps aborting transactions does not get hit by a retry storm on top of the regular load.
+ */
+final class RetryBudget
+{
+    private static final long TOKEN = 1_000;
+    private static final long CAPACITY = 100 * TOKEN;
+
+    private final long deposit;
+    private final AtomicLong balance;
+
+    RetryBudget(double ratio)
+    {
+        this.deposit = (long) (ratio * TOKEN);
+        this.balance = new AtomicLong(this.deposit > 0 ? CAPACITY : 0);
+    }
+
+    void deposit()
+    {
+        if (this.deposit == 0)
+            return;
+
+        this.balance.getAndUpdate(balance -> Math.min(balance + this.deposit, CAPACITY));
+    }
+
+    boolean tryWithdraw()
+    {
+        while (true)
+        {
+            var balance = this.balance.get();
+
+            if (balance < TOKEN)
+                return false;
+
+            if (this.balance.compareAndSet(balance, balance - TOKEN))
+                return true;
+        }
+    }
+}
@@ -4,32 +4,47 @@ import java.util.*;
 
 import com.botdiril.framework.sql.orm.ModelColumn;
 
+/**
+ * A single result row, the values are stored by index against a {@link RowSchema} shared by all rows of a result set.
+ */
 public class RowData
 {
-    private final Map<String, Optional<?>> values;
-    private final Map<String, Class<?>> columns;
+    private final RowSchema schema;
+    private final Object[] values;
 
-    RowData()
+    RowData(RowSchema schema, Object[] values)
     {
-        this.values = new HashMap<>();
-        this.columns = new LinkedHashMap<>();
+        this.schema = schema;
+        this.values = values;
+    }
+
+    public RowSchema getSchema()
+    {
+        return this.schema;
     }
 
     public Map<String, Class<?>> getColumns()
     {
-        return Collections.unmodifiableMap(this.columns);
+        return this.schema.getColumns();
     }
 
-    <T> void add(String colName, Class<? super T> rootClass, Optional<? super T> value)
+    /**
+     * @return the value at the column index of the schema, or null for SQL {@code NULL}
+     */
+    public Object get(int idx)
     {
-        this.values.put(colName, value);
-        this.columns.put(colName, rootClass);
+        return this.values[idx];
     }
 
     public <T> Optional<T> getValue(String value, Class<T> valueType)
     {
-        return values.get(value)
-                     .map(valueType::cast);
+        var idx = this.schema.indexOf(value);
+
+        if (idx == -1)
+            throw new NoSuchElementException("No column named `%s` in this row.".formatted(value));
+
+        return Optional.ofNullable(this.values[idx])
+                       .map(valueType::cast);
     }
 
     public <T> Optional<T> getValue(ModelColumn<T> column)
@@ -51,6 +66,16 @@ public class RowData
     @Override
     public String toString()
     {
-        return this.values.toString();
+        var sb = new StringBuilder("{");
+
+        for (int i = 0; i < this.values.length; i++)
+        {
+            if (i > 0)
+                sb.append(", ");
+
+            sb.append(this.schema.getColumnName(i)).append('=').append(this.values[i]);
+        }
+
+        return sb.append('}').toString();
     }
 }
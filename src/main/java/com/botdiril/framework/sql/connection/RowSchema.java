@@ -0,0 +1,161 @@
+package com.botdiril.framework.sql.connection;
+
+import com.mysql.cj.MysqlType;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.*;
+
+import com.botdiril.framework.sql.ISqlCallback;
+import com.botdiril.framework.sql.orm.types.EnumDataType;
+
+/**
+ * The columns of a result set, resolved once and shared by all {@link RowData} read from it.
+ *
+ * Columns of types without a {@link EnumDataType} are left out.
+ */
+public final class RowSchema
+{
+    private final String[] names;
+    private final Class<?>[] types;
+    private final int[] resultSetIndices;
+    private final EnumDataType.IndexedValueExtractor<Object>[] extractors;
+    private final Map<String, Integer> indices;
+    private final Map<String, Class<?>> columns;
+
+    private RowSchema(List<String> names, List<Class<?>> types, List<Integer> resultSetIndices, List<EnumDataType.IndexedValueExtractor<Object>> extractors)
+    {
+        this.names = names.toArray(String[]::new);
+        this.types = types.toArray(Class<?>[]::new);
+        this.resultSetIndices = resultSetIndices.stream()
+                                                .mapToInt(Integer::intValue)
+                                                .toArray();
+
+        @SuppressWarnings("unchecked")
+        EnumDataType.IndexedValueExtractor<Object>[] extractorArray = extractors.toArray(EnumDataType.IndexedValueExtractor[]::new);
+        this.extractors = extractorArray;
+
+        var indices = new HashMap<String, Integer>();
+        var columns = new LinkedHashMap<String, Class<?>>();
+
+        for (int i = 0; i < this.names.length; i++)
+        {
+            // The first of duplicate column names wins, like in ResultSet#findColumn
+            indices.putIfAbsent(this.names[i], i);
+            columns.putIfAbsent(this.names[i], this.types[i]);
+        }
+
+        this.indices = indices;
+        this.columns = Collections.unmodifiableMap(columns);
+    }
+
+    static RowSchema of(ResultSetMetaData meta) throws SQLException
+    {
+        var colCount = meta.getColumnCount();
+
+        var names = new ArrayList<String>(colCount);
+        var types = new ArrayList<Class<?>>(colCount);
+        var resultSetIndices = new ArrayList<Integer>(colCount);
+        var extractors = new ArrayList<EnumDataType.IndexedValueExtractor<Object>>(colCount);
+
+        for (int i = 1; i <= colCount; i++)
+        {
+            var mysqlType = MysqlType.getByJdbcType(meta.getColumnType(i));
+
+            if (mysqlType == MysqlType.UNKNOWN)
+                continue;
+
+            var dataType = EnumDataType.getByJDBC(mysqlType);
+
+            if (dataType == null)
+                continue;
+
+            var extractor = dataType.getIndexedExtractor();
+
+            if (extractor == null)
+                throw new UnsupportedOperationException(String.format("Unsupported type %s.", mysqlType.getName()));
+
+            names.add(meta.getColumnName(i));
+            types.add(dataType.getRootClass());
+            resultSetIndices.add(i);
+            extractors.add(extractor);
+        }
+
+        return new RowSchema(names, types, resultSetIndices, extractors);
+    }
+
+    /**
+     * Reads the current row of the result set, which must have been described by this schema.
+     */
+    RowData read(ResultSet resultSet) throws SQLException, IOException
+    {
+        var values = new Object[this.names.length];
+
+        for (int i = 0; i < values.length; i++)
+        {
+            var value = this.extractors[i].extract(resultSet, this.resultSetIndices[i]);
+            values[i] = resultSet.wasNull() ? null : value;
+        }
+
+        return new RowData(this, values);
+    }
+
+    /**
+     * Creates a row mapper resolving the schema on the first row, for result sets that are not available up front.
+     */
+    static ISqlCallback<RowData, ResultSet> rowMapper()
+    {
+        return new ISqlCallback<>() {
+            private RowSchema schema;
+
+            @Override
+            public RowData exec(ResultSet resultSet) throws Throwable
+            {
+                if (this.schema == null)
+                    this.schema = RowSchema.of(resultSet.getMetaData());
+
+                return this.schema.read(resultSet);
+            }
+        };
+    }
+
+    public int getColumnCount()
+    {
+        return this.names.length;
+    }
+
+    public String getColumnName(int idx)
+    {
+        return this.names[idx];
+    }
+
+    public Class<?> getColumnType(int idx)
+    {
+        return this.types[idx];
+    }
+
+    /**
+     * @return the index of the column, or -1 when there is no such column
+     */
+    public int indexOf(String name)
+    {
+        var idx = this.indices.get(name);
+        return idx != null ? idx : -1;
+    }
+
+    /**
+     * @return the column names mapped to their value types, in result set order
+     */
+    public Map<String, Class<?>> getColumns()
+    {
+        return this.columns;
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.columns.toString();
+    }
+}
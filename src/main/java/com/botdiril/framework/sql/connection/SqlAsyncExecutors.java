@@ -0,0 +1,54 @@
+package com.botdiril.framework.sql.connection;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class SqlAsyncExecutors
+{
+    private SqlAsyncExecutors()
+    {
+
+    }
+
+    /**
+     * Creates a virtual thread per task executor when running on JDK 21 or newer,
+     * otherwise a fixed pool of daemon platform threads.
+     *
+     * @param parallelism the platform thread count, matching the number of connections that can be in use at once
+     */
+    public static ExecutorService createDefault(int parallelism)
+    {
+        var virtualExecutor = createVirtualThreadExecutor();
+
+        if (virtualExecutor != null)
+            return virtualExecutor;
+
+        var threadCounter = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(parallelism, r -> {
+            var thread = new Thread(r, "botdiril-sql-async-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static ExecutorService createVirtualThreadExecutor()
+    {
+        try
+        {
+            // Looked up reflectively, since the library is compiled for JDK 17
+            var factory = MethodHandles.publicLookup()
+                                       .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+
+            return (ExecutorService) factory.invokeExact();
+        }
+        catch (Throwable e)
+        {
+            // Missing before JDK 19, a preview feature requiring --enable-preview on JDK 19 and 20
+            return null;
+        }
+    }
+}
@@ -1,10 +1,151 @@
 package com.botdiril.framework.sql.connection;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+import com.botdiril.framework.sql.connection.metrics.SqlMetricsListener;
+import com.botdiril.framework.sql.connection.pool.ConnectionPoolFactory;
+import com.botdiril.framework.sql.connection.pool.ReplicaRouter;
+
 public record SqlConnectionConfig(
     String host,
     String username,
     String password,
-    String defaultSchema
+    String defaultSchema,
+    int statementCacheSize,
+    ConnectionPoolFactory connectionPool,
+    int maxPoolSize,
+    List<String> replicaHosts,
+    ReplicaRouter.Balancing replicaBalancing,
+    Executor asyncExecutor,
+    Duration slowQueryThreshold,
+    double statementSampleRate,
+    SqlMetricsListener metricsListener,
+    TransactionRetryPolicy transactionRetryPolicy,
+    QueryCacheConfig queryCache
 )
 {
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+    public static final int DEFAULT_MAX_POOL_SIZE = 15;
+
+    public SqlConnectionConfig
+    {
+        if (statementCacheSize < 0)
+            throw new IllegalArgumentException("The statement cache size cannot be negative.");
+
+        Objects.requireNonNull(connectionPool);
+
+        if (maxPoolSize <= 0)
+            throw new IllegalArgumentException("The pool size must be positive.");
+
+        replicaHosts = List.copyOf(replicaHosts);
+        Objects.requireNonNull(replicaBalancing);
+
+        if (statementSampleRate < 0 || statementSampleRate > 1)
+            throw new IllegalArgumentException("The statement sample rate must be between 0 and 1.");
+
+        Objects.requireNonNull(metricsListener);
+        Objects.requireNonNull(transactionRetryPolicy);
+    }
+
+    public SqlConnectionConfig(String host, String username, String password, String defaultSchema)
+    {
+        this(host, username, password, defaultSchema, DEFAULT_STATEMENT_CACHE_SIZE, ConnectionPoolFactory.C3P0, DEFAULT_MAX_POOL_SIZE,
+            List.of(), ReplicaRouter.Balancing.ROUND_ROBIN, null, null, 0, SqlMetricsListener.NONE, TransactionRetryPolicy.DEFAULT, null);
+    }
+
+    public String getJdbcURL(String schema)
+    {
+        return this.getJdbcURL(this.host, schema);
+    }
+
+    public String getJdbcURL(String host, String schema)
+    {
+        return "jdbc:mysql://" + host + "/" + schema +
+            "?useUnicode=true" +
+            "&autoReconnect=true" +
+            "&useJDBCCompliantTimezoneShift=true" +
+            "&useLegacyDatetimeCode=false" +
+            "&serverTimezone=UTC" +
+            "&rewriteBatchedStatements=true";
+    }
+
+    /**
+     * @param statementCacheSize the maximum number of prepared statements cached per physical connection, zero disables the cache
+     */
+    public SqlConnectionConfig withStatementCacheSize(int statementCacheSize)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, statementCacheSize, this.connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, this.metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param connectionPool the pool implementation, for example {@link ConnectionPoolFactory#LIGHTWEIGHT}
+     */
+    public SqlConnectionConfig withConnectionPool(ConnectionPoolFactory connectionPool)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, this.metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    public SqlConnectionConfig withMaxPoolSize(int maxPoolSize)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, this.metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param replicaHosts the hosts read-only connections are routed to, falling back to the primary when none is healthy
+     */
+    public SqlConnectionConfig withReplicas(List<String> replicaHosts, ReplicaRouter.Balancing replicaBalancing)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, this.maxPoolSize, replicaHosts, replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, this.metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param asyncExecutor the executor running async transactions, null for {@link SqlAsyncExecutors#createDefault(int)}
+     */
+    public SqlConnectionConfig withAsyncExecutor(Executor asyncExecutor)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, this.metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param slowQueryThreshold statements taking at least this long are logged with their parameters and calling site, null disables the log
+     */
+    public SqlConnectionConfig withSlowQueryThreshold(Duration slowQueryThreshold)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, slowQueryThreshold, this.statementSampleRate, this.metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param statementSampleRate the probability of a statement being traced in full, zero disables tracing
+     */
+    public SqlConnectionConfig withStatementSampleRate(double statementSampleRate)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, statementSampleRate, this.metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param metricsListener receives pool, statement and transaction events, for example {@link com.botdiril.framework.sql.connection.metrics.SqlMetrics}
+     */
+    public SqlConnectionConfig withMetricsListener(SqlMetricsListener metricsListener)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, metricsListener, this.transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param transactionRetryPolicy the retry policy of {@link SqlConnectionManager#inTransaction}, {@link TransactionRetryPolicy#NEVER} disables retries
+     */
+    public SqlConnectionConfig withTransactionRetryPolicy(TransactionRetryPolicy transactionRetryPolicy)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, this.metricsListener, transactionRetryPolicy, this.queryCache);
+    }
+
+    /**
+     * @param queryCache the query result cache settings for read-only connections, null disables the cache
+     */
+    public SqlConnectionConfig withQueryCache(QueryCacheConfig queryCache)
+    {
+        return new SqlConnectionConfig(this.host, this.username, this.password, this.defaultSchema, this.statementCacheSize, this.connectionPool, this.maxPoolSize, this.replicaHosts, this.replicaBalancing, this.asyncExecutor, this.slowQueryThreshold, this.statementSampleRate, this.metricsListener, this.transactionRetryPolicy, queryCache);
+    }
 }
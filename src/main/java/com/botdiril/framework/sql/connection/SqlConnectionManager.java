@@ -1,48 +1,143 @@
 package com.botdiril.framework.sql.connection;
 
-import com.mchange.v2.c3p0.ComboPooledDataSource;
+import com.mysql.cj.jdbc.JdbcConnection;
 
 import java.beans.PropertyVetoException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import com.botdiril.framework.sql.IDBResource;
-import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.ISqlCallback;
+import com.botdiril.framework.sql.connection.metrics.SqlMetricsListener;
+import com.botdiril.framework.sql.connection.pool.ConnectionPool;
+import com.botdiril.framework.sql.connection.pool.ReplicaRouter;
 import com.botdiril.framework.sql.util.DBException;
+import com.botdiril.framework.sql.util.SqlLogger;
 
 public class SqlConnectionManager implements IDBResource
 {
-    private static final int IDLE_CONNECTION_TEST_PERIOD = 60;
-    private static final int MAX_CONNECTION_AGE = 60 * 60;
+    private final ConnectionPool pool;
+    private final ReplicaRouter replicaRouter;
 
-    private final ComboPooledDataSource dataSource;
+    private final int statementCacheSize;
+    private final StatementCacheStats statementCacheStats;
+    private final Map<Connection, StatementCache> statementCaches;
+
+    private final SqlMetricsListener metrics;
+    private final StatementTracer tracer;
+    private final QueryResultCache queryCache;
+
+    private final TransactionRetryPolicy retryPolicy;
+    private final RetryBudget retryBudget;
+
+    private final Executor asyncExecutor;
+    private final ExecutorService ownedAsyncExecutor;
+    private final Semaphore asyncPermits;
 
     public SqlConnectionManager(SqlConnectionConfig config) throws PropertyVetoException
     {
-        var schema = config.defaultSchema();
+        var url = config.getJdbcURL(config.defaultSchema());
+
+        try
+        {
+            this.pool = config.connectionPool().create(url, config);
+        }
+        catch (SQLException e)
+        {
+            throw new DBException(e);
+        }
+
+        try
+        {
+            this.replicaRouter = config.replicaHosts().isEmpty() ? null : new ReplicaRouter(config);
+        }
+        catch (SQLException e)
+        {
+            this.pool.close();
+            throw new DBException(e);
+        }
+
+        this.statementCacheSize = config.statementCacheSize();
+        this.statementCacheStats = new StatementCacheStats();
+        this.statementCaches = new ConcurrentHashMap<>();
+
+        this.metrics = config.metricsListener();
+        this.metrics.onPoolCreated(this.pool);
 
-        var url = "jdbc:mysql:// " + config.host() + "/" + schema +
-                "?useUnicode=true" +
-                "&autoReconnect=true" +
-                "&useJDBCCompliantTimezoneShift=true" +
-                "&useLegacyDatetimeCode=false" +
-                "&serverTimezone=UTC";
+        this.tracer = new StatementTracer(config.slowQueryThreshold(), config.statementSampleRate(), this.metrics);
 
-        this.dataSource = new ComboPooledDataSource();
-        this.dataSource.setDriverClass(SqlEngine.DRIVER_CLASS.getName());
-        this.dataSource.setIdleConnectionTestPeriod(IDLE_CONNECTION_TEST_PERIOD);
-        this.dataSource.setTestConnectionOnCheckin(true);
-        this.dataSource.setMaxConnectionAge(MAX_CONNECTION_AGE);
-        this.dataSource.setJdbcUrl(url);
-        this.dataSource.setUser(config.username());
-        this.dataSource.setPassword(config.password());
-        this.dataSource.setAutoCommitOnClose(false);
+        this.queryCache = config.queryCache() != null ? new QueryResultCache(config.queryCache()) : null;
+
+        this.retryPolicy = config.transactionRetryPolicy();
+        this.retryBudget = new RetryBudget(this.retryPolicy.retryBudgetRatio());
+
+        var capacity = this.pool.getMaxConnections();
+        this.asyncPermits = new Semaphore(capacity);
+
+        if (config.asyncExecutor() != null)
+        {
+            this.asyncExecutor = config.asyncExecutor();
+            this.ownedAsyncExecutor = null;
+        }
+        else
+        {
+            this.ownedAsyncExecutor = SqlAsyncExecutors.createDefault(capacity);
+            this.asyncExecutor = this.ownedAsyncExecutor;
+        }
     }
 
     @Override
     public void close() throws DBException
     {
-        this.dataSource.close();
+        if (this.ownedAsyncExecutor != null)
+            this.ownedAsyncExecutor.shutdown();
+
+        this.statementCaches.values().forEach(StatementCache::close);
+        this.statementCaches.clear();
+
+        if (this.replicaRouter != null)
+            this.replicaRouter.close();
+
+        this.metrics.onPoolClosed(this.pool);
+        this.pool.close();
+    }
+
+    public ConnectionPool getPool()
+    {
+        return this.pool;
+    }
+
+    /**
+     * @return the replica router, or null when no replicas are configured
+     */
+    public ReplicaRouter getReplicaRouter()
+    {
+        return this.replicaRouter;
+    }
+
+    public SqlMetricsListener getMetricsListener()
+    {
+        return this.metrics;
+    }
+
+    /**
+     * @return the query result cache, or null when it is disabled
+     */
+    public QueryResultCache getQueryCache()
+    {
+        return this.queryCache;
+    }
+
+    public StatementCacheStats getStatementCacheStats()
+    {
+        return this.statementCacheStats;
     }
 
     public WriteDBConnection get()
@@ -53,27 +148,208 @@ public class SqlConnectionManager implements IDBResource
     public WriteDBConnection get(boolean autocommit)
     {
         var c = get(autocommit, false);
-        return new WriteDBConnection(c, autocommit);
+        return new WriteDBConnection(c, autocommit, this.getStatementCache(c), this.tracer, this.queryCache);
     }
 
     public ReadDBConnection getReadOnly()
     {
-        var c = get(true, true);
-        return new ReadDBConnection(c, true);
+        var start = System.nanoTime();
+        var replica = this.replicaRouter != null ? this.replicaRouter.getConnection() : null;
+
+        if (replica != null)
+            this.metrics.onCheckout(System.nanoTime() - start);
+
+        var c = replica != null ? this.configure(replica, true, true) : get(true, true);
+        return new ReadDBConnection(c, true, this.getStatementCache(c), this.tracer, this.queryCache, replica != null);
+    }
+
+    /**
+     * Runs the function in a transaction and commits it when the function succeeds.
+     *
+     * Transactions aborted by a deadlock or a lock wait timeout are rolled back and retried according to
+     * the configured {@link TransactionRetryPolicy}, so the function must not have side effects outside the transaction.
+     */
+    public <R> R inTransaction(ISqlCallback<R, WriteDBConnection> fn)
+    {
+        this.retryBudget.deposit();
+
+        for (int attempt = 1; ; attempt++)
+        {
+            try (var db = this.get())
+            {
+                var result = fn.exec(db);
+                db.commit();
+                return result;
+            }
+            catch (Throwable e)
+            {
+                var errorCode = TransactionRetryPolicy.findRetryableError(e);
+
+                if (errorCode == 0)
+                    throw rethrow(e);
+
+                if (attempt >= this.retryPolicy.maxAttempts() || !this.retryBudget.tryWithdraw())
+                {
+                    this.metrics.onTransactionRetriesExhausted();
+                    throw rethrow(e);
+                }
+
+                this.metrics.onTransactionRetry(errorCode);
+
+                var backoff = this.retryPolicy.getBackoffNanos(attempt);
+                SqlLogger.instance.debug("Transaction attempt {} failed with error {}, retrying in {} us.", attempt, errorCode, backoff / 1000);
+
+                try
+                {
+                    TimeUnit.NANOSECONDS.sleep(backoff);
+                }
+                catch (InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new DBException(ie);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the function like {@link #inTransaction(ISqlCallback)} on the async executor.
+     */
+    public <R> CompletableFuture<R> supplyAsync(ISqlCallback<R, WriteDBConnection> fn)
+    {
+        return this.runAsync(() -> this.inTransaction(fn));
+    }
+
+    /**
+     * Runs the function on the async executor, read-only functions are routed like {@link #getReadOnly()}.
+     */
+    public <R> CompletableFuture<R> supplyAsync(ISqlCallback<R, ReadDBConnection> fn, boolean readOnly)
+    {
+        if (!readOnly)
+            return this.supplyAsync(fn::exec);
+
+        return this.runAsync(() -> {
+            try (var db = this.getReadOnly())
+            {
+                return fn.exec(db);
+            }
+        });
+    }
+
+    private <R> CompletableFuture<R> runAsync(ISqlCallback.ISqlSupplier<R> task)
+    {
+        var future = new CompletableFuture<R>();
+
+        this.asyncExecutor.execute(() -> {
+            try
+            {
+                // Bounds the work in flight by the pool capacity, waiting here instead of in the pool
+                this.asyncPermits.acquire();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(e);
+                return;
+            }
+
+            try
+            {
+                future.complete(task.get());
+            }
+            catch (Throwable e)
+            {
+                future.completeExceptionally(e);
+            }
+            finally
+            {
+                this.asyncPermits.release();
+            }
+        });
+
+        return future;
+    }
+
+    private StatementCache getStatementCache(Connection c)
+    {
+        if (this.statementCacheSize == 0)
+            return null;
+
+        try
+        {
+            // Statements are cached on the physical connection, since the pooled proxy changes with every checkout
+            var physical = c.unwrap(JdbcConnection.class);
+            var cache = this.statementCaches.get(physical);
+
+            if (cache != null)
+                return cache;
+
+            // A new physical connection usually means the pool has retired an old one
+            this.statementCaches.values().removeIf(StatementCache::isConnectionClosed);
+
+            cache = new StatementCache(physical, this.statementCacheSize, this.statementCacheStats);
+            this.statementCaches.put(physical, cache);
+
+            return cache;
+        }
+        catch (SQLException e)
+        {
+            throw new DBException(e);
+        }
     }
 
     private Connection get(boolean autocommit, boolean readOnly)
+    {
+        var start = System.nanoTime();
+
+        try
+        {
+            var c = this.pool.getConnection();
+            this.metrics.onCheckout(System.nanoTime() - start);
+            return this.configure(c, autocommit, readOnly);
+        }
+        catch (SQLException e)
+        {
+            this.metrics.onCheckoutFailure(System.nanoTime() - start);
+            throw new DBException(e);
+        }
+    }
+
+    private Connection configure(Connection c, boolean autocommit, boolean readOnly)
     {
         try
         {
-            var c = this.dataSource.getConnection();
             c.setAutoCommit(autocommit);
             c.setReadOnly(readOnly);
             return c;
         }
         catch (SQLException e)
         {
+            closeQuietly(c);
             throw new DBException(e);
         }
     }
-}
\ No newline at end of file
+
+    private static RuntimeException rethrow(Throwable e)
+    {
+        if (e instanceof Error error)
+            throw error;
+
+        if (e instanceof RuntimeException re)
+            return re;
+
+        return new DBException(e);
+    }
+
+    private static void closeQuietly(Connection c)
+    {
+        try
+        {
+            c.close();
+        }
+        catch (SQLException e)
+        {
+            SqlLogger.instance.warn("Failed to close a connection.", e);
+        }
+    }
+}
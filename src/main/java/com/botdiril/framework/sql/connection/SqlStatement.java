@@ -0,0 +1,317 @@
+package com.botdiril.framework.sql.connection;
+
+import com.mysql.cj.MysqlType;
+import org.intellij.lang.annotations.Language;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.botdiril.framework.sql.IDBResource;
+import com.botdiril.framework.sql.ISqlCallback;
+import com.botdiril.framework.sql.util.BlobParam;
+import com.botdiril.framework.sql.util.DBException;
+import com.botdiril.framework.sql.util.SqlLogger;
+
+/**
+ * A prepared statement with fluent, primitive-specialized parameter binding.
+ *
+ * <pre>{@code
+ * try (var stat = db.prepare("UPDATE `users` SET `us_coins` = `us_coins` + ? WHERE `us_id` = ?"))
+ * {
+ *     stat.bindLong(1, amount)
+ *         .bindLong(2, userId)
+ *         .executeUpdate();
+ * }
+ * }</pre>
+ *
+ * The statement may be re-bound and executed multiple times before it is closed.
+ */
+public final class SqlStatement implements IDBResource
+{
+    private final AbstractDBConnection db;
+    private final @Language("MySQL") String sql;
+    private final boolean generatedKeys;
+    private final PreparedStatement statement;
+    private boolean broken;
+
+    /**
+     * Streamed parameters bound since the last execution, released after it.
+     */
+    private final List<BlobParam> boundBlobs;
+
+    SqlStatement(AbstractDBConnection db, @Language("MySQL") String sql, boolean generatedKeys, PreparedStatement statement)
+    {
+        this.db = db;
+        this.sql = sql;
+        this.generatedKeys = generatedKeys;
+        this.statement = statement;
+        this.boundBlobs = new ArrayList<>();
+    }
+
+    public SqlStatement bindInt(int idx, int value)
+    {
+        try
+        {
+            this.statement.setInt(idx, value);
+            return this;
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public SqlStatement bindLong(int idx, long value)
+    {
+        try
+        {
+            this.statement.setLong(idx, value);
+            return this;
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public SqlStatement bindDouble(int idx, double value)
+    {
+        try
+        {
+            this.statement.setDouble(idx, value);
+            return this;
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public SqlStatement bindBoolean(int idx, boolean value)
+    {
+        try
+        {
+            this.statement.setBoolean(idx, value);
+            return this;
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public SqlStatement bindString(int idx, String value)
+    {
+        try
+        {
+            this.statement.setString(idx, value);
+            return this;
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public SqlStatement bindDecimal(int idx, BigDecimal value)
+    {
+        try
+        {
+            this.statement.setBigDecimal(idx, value);
+            return this;
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public SqlStatement bindBlob(int idx, BlobParam value)
+    {
+        try
+        {
+            value.bind(this.statement, idx);
+            this.boundBlobs.add(value);
+            return this;
+        }
+        catch (Exception e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public SqlStatement bindNull(int idx, MysqlType type)
+    {
+        try
+        {
+            this.statement.setNull(idx, type.getJdbcType());
+            return this;
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    /**
+     * Binds all parameters at once, using the same rules as the varargs query methods.
+     */
+    public SqlStatement bindAll(Object... params)
+    {
+        try
+        {
+            this.db.bindParams(this.sql, this.statement, params);
+
+            for (var param : params)
+            {
+                if (param instanceof BlobParam blobParam)
+                    this.boundBlobs.add(blobParam);
+            }
+
+            return this;
+        }
+        catch (Exception e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    public int executeUpdate()
+    {
+        try
+        {
+            SqlLogger.logStatement(this.statement);
+
+            var tracer = this.db.tracer;
+            var start = tracer.isEnabled() ? System.nanoTime() : 0L;
+
+            var updateCount = this.statement.executeUpdate();
+            this.db.markWritten(this.sql);
+
+            if (tracer.isEnabled())
+                tracer.trace(this.statement, this.sql, null, System.nanoTime() - start, updateCount);
+
+            return updateCount;
+        }
+        catch (SQLException e)
+        {
+            this.db.tracer.traceError();
+            throw this.fail(e);
+        }
+        finally
+        {
+            this.releaseBlobs();
+        }
+    }
+
+    public boolean execute()
+    {
+        try
+        {
+            SqlLogger.logStatement(this.statement);
+
+            var tracer = this.db.tracer;
+            var start = tracer.isEnabled() ? System.nanoTime() : 0L;
+
+            var hasResultSet = this.statement.execute();
+            this.db.markWritten(this.sql);
+
+            if (tracer.isEnabled())
+                tracer.trace(this.statement, this.sql, null, System.nanoTime() - start, null);
+
+            return hasResultSet;
+        }
+        catch (SQLException e)
+        {
+            this.db.tracer.traceError();
+            throw this.fail(e);
+        }
+        finally
+        {
+            this.releaseBlobs();
+        }
+    }
+
+    public <R> R executeQuery(ISqlCallback<R, ResultSet> callback)
+    {
+        try
+        {
+            SqlLogger.logStatement(this.statement);
+
+            var tracer = this.db.tracer;
+            var start = tracer.isEnabled() ? System.nanoTime() : 0L;
+
+            try (var rs = this.statement.executeQuery())
+            {
+                var result = callback.exec(rs);
+
+                if (tracer.isEnabled())
+                    tracer.trace(this.statement, this.sql, null, System.nanoTime() - start, rs);
+
+                return result;
+            }
+        }
+        catch (SQLException e)
+        {
+            this.db.tracer.traceError();
+            throw this.fail(e);
+        }
+        catch (Throwable e)
+        {
+            throw new DBException(e);
+        }
+        finally
+        {
+            this.releaseBlobs();
+        }
+    }
+
+    /**
+     * Only valid for statements prepared with generated keys, the result set is closed on the next execution.
+     */
+    public ResultSet getGeneratedKeys()
+    {
+        try
+        {
+            return this.statement.getGeneratedKeys();
+        }
+        catch (SQLException e)
+        {
+            throw this.fail(e);
+        }
+    }
+
+    private void releaseBlobs()
+    {
+        if (this.boundBlobs.isEmpty())
+            return;
+
+        this.boundBlobs.forEach(BlobParam::close);
+        this.boundBlobs.clear();
+    }
+
+    @Override
+    public void close() throws DBException
+    {
+        this.releaseBlobs();
+
+        try
+        {
+            this.db.releaseStatement(this.sql, this.generatedKeys, this.statement, this.broken);
+        }
+        catch (SQLException e)
+        {
+            throw new DBException(e);
+        }
+    }
+
+    private DBException fail(Exception e)
+    {
+        this.broken = true;
+        return new DBException(e);
+    }
+}
@@ -0,0 +1,163 @@
+package com.botdiril.framework.sql.connection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.botdiril.framework.sql.util.SqlLogger;
+
+/**
+ * A bounded LRU cache of prepared statements, bound to a single physical connection.
+ *
+ * A physical connection is only ever checked out by one thread at a time,
+ * so the cache itself is not synchronized.
+ */
+public final class StatementCache
+{
+    private record Key(String sql, boolean generatedKeys)
+    {
+
+    }
+
+    private static final class Entry
+    {
+        private final PreparedStatement statement;
+        private boolean inUse;
+
+        private Entry(PreparedStatement statement)
+        {
+            this.statement = statement;
+        }
+    }
+
+    private final Connection connection;
+    private final StatementCacheStats stats;
+    private final Map<Key, Entry> statements;
+
+    StatementCache(Connection connection, int maxSize, StatementCacheStats stats)
+    {
+        this.connection = connection;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest)
+            {
+                if (this.size() <= maxSize)
+                    return false;
+
+                stats.eviction();
+
+                var entry = eldest.getValue();
+
+                // Statements in use are closed on release, since they won't be found anymore
+                if (!entry.inUse)
+                    closeQuietly(entry.statement);
+
+                return true;
+            }
+        };
+    }
+
+    PreparedStatement acquire(String sql, boolean generatedKeys) throws SQLException
+    {
+        var key = new Key(sql, generatedKeys);
+        var entry = this.statements.get(key);
+
+        if (entry != null)
+        {
+            // Re-entrant use of the same SQL gets a throwaway statement
+            if (entry.inUse)
+            {
+                this.stats.miss();
+                return this.prepare(key);
+            }
+
+            if (!entry.statement.isClosed())
+            {
+                this.stats.hit();
+                entry.inUse = true;
+                return entry.statement;
+            }
+        }
+
+        this.stats.miss();
+
+        var newEntry = new Entry(this.prepare(key));
+        newEntry.inUse = true;
+        this.statements.put(key, newEntry);
+
+        return newEntry.statement;
+    }
+
+    /**
+     * Returns the statement into the cache.
+     *
+     * @return false if the statement is not owned by the cache and the caller should close it
+     */
+    boolean release(String sql, boolean generatedKeys, PreparedStatement statement, boolean broken) throws SQLException
+    {
+        var key = new Key(sql, generatedKeys);
+        var entry = this.statements.get(key);
+
+        if (entry == null || entry.statement != statement)
+            return false;
+
+        entry.inUse = false;
+
+        if (broken)
+        {
+            this.statements.remove(key);
+            closeQuietly(statement);
+            return true;
+        }
+
+        statement.clearParameters();
+
+        return true;
+    }
+
+    boolean isConnectionClosed()
+    {
+        try
+        {
+            return this.connection.isClosed();
+        }
+        catch (SQLException e)
+        {
+            return true;
+        }
+    }
+
+    void close()
+    {
+        var entries = new ArrayList<>(this.statements.values());
+        this.statements.clear();
+        entries.forEach(entry -> closeQuietly(entry.statement));
+    }
+
+    public int size()
+    {
+        return this.statements.size();
+    }
+
+    private PreparedStatement prepare(Key key) throws SQLException
+    {
+        return this.connection.prepareStatement(key.sql(), key.generatedKeys() ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS);
+    }
+
+    private static void closeQuietly(PreparedStatement statement)
+    {
+        try
+        {
+            statement.close();
+        }
+        catch (SQLException e)
+        {
+            SqlLogger.instance.warn("Failed to close an evicted statement.", e);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.botdiril.framework.sql.connection;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public final class StatementCacheStats
+{
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    StatementCacheStats()
+    {
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+
+    void hit()
+    {
+        this.hits.increment();
+    }
+
+    void miss()
+    {
+        this.misses.increment();
+    }
+
+    void eviction()
+    {
+        this.evictions.increment();
+    }
+
+    public long getHits()
+    {
+        return this.hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return this.misses.sum();
+    }
+
+    public long getEvictions()
+    {
+        return this.evictions.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "statement-cache { hits: %d, misses: %d, evictions: %d }".formatted(this.getHits(), this.getMisses(), this.getEvictions());
+    }
+}
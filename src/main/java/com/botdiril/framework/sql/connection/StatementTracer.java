@@ -0,0 +1,165 @@
+package com.botdiril.framework.sql.connection;
+
+import com.mysql.cj.protocol.Resultset;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import com.botdiril.framework.sql.connection.metrics.SqlMetricsListener;
+import com.botdiril.framework.sql.connection.metrics.StatementKind;
+import com.botdiril.framework.sql.util.SqlLogger;
+
+/**
+ * Times statement executions for the slow query log, sampled statement tracing and the metrics listener.
+ *
+ * When all of them are disabled, no timing is done at all.
+ */
+public final class StatementTracer
+{
+    private static final int MAX_LOGGED_PARAM_LENGTH = 256;
+
+    static final StatementTracer DISABLED = new StatementTracer(null, 0, SqlMetricsListener.NONE);
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final long slowQueryThresholdNanos;
+    private final double sampleRate;
+    private final SqlMetricsListener metrics;
+    private final boolean enabled;
+
+    StatementTracer(Duration slowQueryThreshold, double sampleRate, SqlMetricsListener metrics)
+    {
+        this.slowQueryThresholdNanos = slowQueryThreshold != null ? slowQueryThreshold.toNanos() : Long.MAX_VALUE;
+        this.sampleRate = sampleRate;
+        this.metrics = metrics;
+        this.enabled = slowQueryThreshold != null || sampleRate > 0 || metrics != SqlMetricsListener.NONE;
+    }
+
+    boolean isEnabled()
+    {
+        return this.enabled;
+    }
+
+    SqlMetricsListener getMetrics()
+    {
+        return this.metrics;
+    }
+
+    void traceError()
+    {
+        this.metrics.onStatementError();
+    }
+
+    void trace(PreparedStatement stat, String sql, Object[] params, long elapsedNanos, Object result)
+    {
+        this.trace(stat, sql, params, kindOf(result), elapsedNanos, result);
+    }
+
+    /**
+     * @param params the bound parameters, or null to render them from the statement itself
+     * @param result the value returned by the execution, used to determine the row count
+     */
+    void trace(PreparedStatement stat, String sql, Object[] params, StatementKind kind, long elapsedNanos, Object result)
+    {
+        if (this.metrics != SqlMetricsListener.NONE)
+            this.metrics.onStatement(kind, elapsedNanos, countRows(result));
+
+        var slow = elapsedNanos >= this.slowQueryThresholdNanos;
+        var sampled = !slow && this.sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < this.sampleRate;
+
+        if (!slow && !sampled)
+            return;
+
+        var rows = countRows(result);
+        var millis = elapsedNanos / 1e6;
+        var rowsText = rows >= 0 ? Long.toString(rows) : "unknown";
+
+        try
+        {
+            if (slow)
+            {
+                var statementText = params != null ? sql + " with parameters " + formatParams(params) : SqlLogger.renderStatement(stat);
+
+                SqlLogger.slowQueryLog.warn("Slow query took {} ms, {} rows, called from {}: {}",
+                    "%.3f".formatted(millis), rowsText, findCallingSite(), statementText);
+            }
+            else
+            {
+                SqlLogger.slowQueryLog.info("Sampled statement took {} ms, {} rows, called from {}: {}",
+                    "%.3f".formatted(millis), rowsText, findCallingSite(), SqlLogger.renderStatement(stat));
+            }
+        }
+        catch (SQLException e)
+        {
+            SqlLogger.slowQueryLog.warn("Failed to trace a statement.", e);
+        }
+    }
+
+    private static StatementKind kindOf(Object result)
+    {
+        if (result instanceof ResultSet)
+            return StatementKind.QUERY;
+
+        if (result instanceof Integer)
+            return StatementKind.UPDATE;
+
+        return StatementKind.EXECUTE;
+    }
+
+    /**
+     * @return the update count, the number of rows buffered by a result set or consumed by a stream, -1 when unknown
+     */
+    private static long countRows(Object result)
+    {
+        if (result instanceof Integer updateCount)
+            return updateCount;
+
+        // Streamed queries count the rows they have consumed
+        if (result instanceof Long rowCount)
+            return rowCount;
+
+        try
+        {
+            // Streamed result sets don't know their size and report -1
+            if (result instanceof ResultSet rs && rs.isWrapperFor(Resultset.class))
+                return rs.unwrap(Resultset.class).getRows().size();
+        }
+        catch (SQLException e)
+        {
+            SqlLogger.slowQueryLog.debug("Failed to count the rows of a result set.", e);
+        }
+
+        return -1;
+    }
+
+    private static String findCallingSite()
+    {
+        return STACK_WALKER.walk(frames -> frames.filter(frame -> !frame.getClassName().startsWith("com.botdiril.framework.sql."))
+                                                 .findFirst()
+                                                 .map(StackWalker.StackFrame::toStackTraceElement)
+                                                 .map(StackTraceElement::toString)
+                                                 .orElse("unknown"));
+    }
+
+    private static String formatParams(Object[] params)
+    {
+        return Arrays.stream(params)
+                     .map(param -> {
+                         if (param instanceof byte[] bytes)
+                             return "<%d bytes>".formatted(bytes.length);
+
+                         var str = String.valueOf(param);
+
+                         if (str.length() > MAX_LOGGED_PARAM_LENGTH)
+                             return str.substring(0, MAX_LOGGED_PARAM_LENGTH) + "...";
+
+                         return str;
+                     })
+                     .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
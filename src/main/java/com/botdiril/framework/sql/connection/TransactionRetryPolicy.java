@@ -0,0 +1,68 @@
+package com.botdiril.framework.sql.connection;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Controls how {@link SqlConnectionManager#inTransaction(com.botdiril.framework.sql.ISqlCallback)} retries
+ * transactions aborted by a deadlock or a lock wait timeout.
+ *
+ * @param maxAttempts the maximum number of attempts per transaction, including the first one
+ * @param initialBackoff the base delay before the first retry, doubled with every further retry
+ * @param maxBackoff the upper bound of the delay
+ * @param retryBudgetRatio the number of retries each transaction adds to the shared retry budget,
+ *                         limiting retries to a fraction of the traffic when the database is overloaded
+ */
+public record TransactionRetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double retryBudgetRatio)
+{
+    public static final TransactionRetryPolicy DEFAULT = new TransactionRetryPolicy(5, Duration.ofMillis(5), Duration.ofMillis(500), 0.2);
+
+    public static final TransactionRetryPolicy NEVER = new TransactionRetryPolicy(1, Duration.ZERO, Duration.ZERO, 0);
+
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    public TransactionRetryPolicy
+    {
+        if (maxAttempts <= 0)
+            throw new IllegalArgumentException("The number of attempts must be positive.");
+
+        Objects.requireNonNull(initialBackoff);
+        Objects.requireNonNull(maxBackoff);
+
+        if (retryBudgetRatio < 0)
+            throw new IllegalArgumentException("The retry budget ratio cannot be negative.");
+    }
+
+    /**
+     * Full jitter, the delay is uniformly distributed between zero and the exponential backoff.
+     */
+    long getBackoffNanos(int retry)
+    {
+        var ceiling = this.initialBackoff.toNanos() << Math.min(retry - 1, 30);
+        var backoff = Math.min(ceiling < 0 ? Long.MAX_VALUE : ceiling, this.maxBackoff.toNanos());
+
+        return backoff <= 0 ? 0 : ThreadLocalRandom.current().nextLong(backoff + 1);
+    }
+
+    /**
+     * @return the MySQL error code of a deadlock or a lock wait timeout in the cause chain, or zero when the error is not retryable
+     */
+    static int findRetryableError(Throwable t)
+    {
+        for (var cause = t; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof SQLException e)
+            {
+                var errorCode = e.getErrorCode();
+
+                if (errorCode == ER_LOCK_DEADLOCK || errorCode == ER_LOCK_WAIT_TIMEOUT)
+                    return errorCode;
+            }
+        }
+
+        return 0;
+    }
+}
@@ -5,19 +5,32 @@ import org.intellij.lang.annotations.Language;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 import com.botdiril.framework.sql.ISqlExecuteFunction;
 import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.metrics.StatementKind;
 import com.botdiril.framework.sql.util.DBException;
 import com.botdiril.framework.sql.util.SqlLogger;
 
 public final class WriteDBConnection extends ReadDBConnection
 {
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
     WriteDBConnection(Connection connection, boolean autocommit)
     {
         super(connection, autocommit, false);
     }
 
+    WriteDBConnection(Connection connection, boolean autocommit, StatementCache statementCache, StatementTracer tracer, QueryResultCache queryCache)
+    {
+        super(connection, autocommit, false, statementCache, tracer, queryCache);
+    }
+
     public static WriteDBConnection fromExisting(Connection c)
     {
         try
@@ -35,12 +48,16 @@ public final class WriteDBConnection extends ReadDBConnection
 
     public int simpleUpdate(@Language("MySQL") String statement, Object... params)
     {
-        return this.executeStatement(statement, PreparedStatement::executeUpdate, Integer::intValue, params);
+        var updateCount = this.executeStatement(statement, PreparedStatement::executeUpdate, Integer::intValue, params);
+        this.markWritten(statement);
+        return updateCount;
     }
 
     public boolean simpleExecute(@Language("MySQL") String statement, Object... params)
     {
-        return this.executeStatement(statement, PreparedStatement::execute, Boolean::booleanValue, params);
+        var hasResultSet = this.executeStatement(statement, PreparedStatement::execute, Boolean::booleanValue, params);
+        this.markWritten(statement);
+        return hasResultSet;
     }
 
     public <R> R exec(@Language("MySQL") String statement, ISqlExecuteFunction<R> callback, Object... params)
@@ -50,7 +67,128 @@ public final class WriteDBConnection extends ReadDBConnection
 
     public <R> R exec(@Language("MySQL") String statement, boolean generateKeys, ISqlExecuteFunction<R> callback, Object... params)
     {
-        return this.executeStatement(generateKeys, statement, callback, result -> result, params);
+        var value = this.executeStatement(generateKeys, statement, callback, result -> result, params);
+        this.markWritten(statement);
+        return value;
+    }
+
+    public int[] batchUpdate(@Language("MySQL") String statement, Iterable<Object[]> rows)
+    {
+        return this.batchUpdate(statement, rows, DEFAULT_BATCH_SIZE);
+    }
+
+    public int[] batchUpdate(@Language("MySQL") String statement, Iterable<Object[]> rows, int batchSize)
+    {
+        var expectedRows = rows instanceof Collection<?> collection ? collection.size() : batchSize;
+        return this.batchUpdate(statement, rows.iterator(), batchSize, expectedRows);
+    }
+
+    /**
+     * Streams the rows into the statement, flushing a batch every {@code batchSize} rows,
+     * so only one batch is held by the driver at a time.
+     */
+    public int[] batchUpdate(@Language("MySQL") String statement, Stream<Object[]> rows, int batchSize)
+    {
+        return this.batchUpdate(statement, rows.iterator(), batchSize, batchSize);
+    }
+
+    /**
+     * Note that batches rewritten into a multi-row statement by the driver may report
+     * {@link java.sql.Statement#SUCCESS_NO_INFO} instead of the actual update count.
+     *
+     * @return the update counts, in the order of the input rows
+     */
+    private int[] batchUpdate(@Language("MySQL") String statement, Iterator<Object[]> rows, int batchSize, int expectedRows)
+    {
+        if (batchSize <= 0)
+            throw new IllegalArgumentException("The batch size must be positive.");
+
+        try
+        {
+            var stat = this.prepareStatement(statement, false);
+            var broken = true;
+
+            try
+            {
+                var traced = this.tracer.isEnabled();
+                var start = traced ? System.nanoTime() : 0L;
+
+                var updateCounts = new int[Math.max(expectedRows, 1)];
+                var rowCount = 0;
+                var pending = 0;
+
+                // Rows of the current batch, their streamed parameters are released once it is executed
+                var pendingRows = new ArrayList<Object[]>(Math.min(batchSize, 1024));
+
+                try
+                {
+                    while (rows.hasNext())
+                    {
+                        var row = rows.next();
+                        pendingRows.add(row);
+
+                        this.bindParams(statement, stat, row);
+                        stat.addBatch();
+
+                        if (++pending < batchSize)
+                            continue;
+
+                        updateCounts = appendUpdateCounts(updateCounts, rowCount, stat.executeBatch());
+                        rowCount += pending;
+                        pending = 0;
+
+                        pendingRows.forEach(ParamBinder::release);
+                        pendingRows.clear();
+                    }
+
+                    if (pending > 0)
+                    {
+                        updateCounts = appendUpdateCounts(updateCounts, rowCount, stat.executeBatch());
+                        rowCount += pending;
+                    }
+                }
+                catch (SQLException e)
+                {
+                    this.tracer.traceError();
+                    throw e;
+                }
+                finally
+                {
+                    pendingRows.forEach(ParamBinder::release);
+                }
+
+                SqlLogger.instance.debug("Executed a batch of {} rows: {}", rowCount, statement);
+
+                if (traced)
+                    this.tracer.trace(stat, statement, null, StatementKind.BATCH, System.nanoTime() - start, rowCount);
+
+                this.markWritten(statement);
+
+                broken = false;
+
+                return rowCount == updateCounts.length ? updateCounts : Arrays.copyOf(updateCounts, rowCount);
+            }
+            finally
+            {
+                this.releaseStatement(statement, false, stat, broken);
+            }
+        }
+        catch (Throwable e)
+        {
+            throw new DBException(e);
+        }
+    }
+
+    private static int[] appendUpdateCounts(int[] updateCounts, int offset, int[] batchCounts)
+    {
+        var required = offset + batchCounts.length;
+
+        if (required > updateCounts.length)
+            updateCounts = Arrays.copyOf(updateCounts, Math.max(required, updateCounts.length * 2));
+
+        System.arraycopy(batchCounts, 0, updateCounts, offset, batchCounts.length);
+
+        return updateCounts;
     }
 
     public boolean createSchema(String name)
@@ -0,0 +1,75 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * A growable primitive array made of fixed-size chunks, so growing never copies the elements read so far.
+ *
+ * <pre>{@code
+ * var idx = values.claim();
+ * values.current()[idx] = value;
+ * }</pre>
+ */
+final class ChunkedArray<A>
+{
+    private static final int CHUNK_SIZE = 4096;
+
+    private final IntFunction<A> allocator;
+    private final List<A> chunks;
+    private A current;
+    private int position;
+    private int size;
+
+    ChunkedArray(IntFunction<A> allocator)
+    {
+        this.allocator = allocator;
+        this.chunks = new ArrayList<>();
+        this.position = CHUNK_SIZE;
+    }
+
+    /**
+     * @return the index in {@link #current()} to write the next element to
+     */
+    int claim()
+    {
+        if (this.position == CHUNK_SIZE)
+        {
+            this.current = this.allocator.apply(CHUNK_SIZE);
+            this.chunks.add(this.current);
+            this.position = 0;
+        }
+
+        this.size++;
+        return this.position++;
+    }
+
+    A current()
+    {
+        return this.current;
+    }
+
+    int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Copies the elements into one array of the exact size.
+     */
+    A toArray()
+    {
+        var result = this.allocator.apply(this.size);
+        var offset = 0;
+
+        for (var chunk : this.chunks)
+        {
+            var length = Math.min(CHUNK_SIZE, this.size - offset);
+            System.arraycopy(chunk, 0, result, offset, length);
+            offset += length;
+        }
+
+        return result;
+    }
+}
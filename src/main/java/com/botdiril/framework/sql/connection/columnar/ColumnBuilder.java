@@ -0,0 +1,194 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+
+/**
+ * Accumulates the values of one result set column into chunked arrays.
+ */
+abstract class ColumnBuilder
+{
+    protected final String name;
+    protected final int column;
+    protected final BitSet nulls;
+    protected int rows;
+
+    private ColumnBuilder(String name, int column)
+    {
+        this.name = name;
+        this.column = column;
+        this.nulls = new BitSet();
+    }
+
+    static ColumnBuilder forColumn(ResultSetMetaData meta, int column) throws SQLException
+    {
+        var name = meta.getColumnLabel(column);
+        var type = JDBCType.valueOf(meta.getColumnType(column));
+
+        return switch (type) {
+            // Unsigned BIGINT values may not fit into a long
+            case BIGINT -> meta.isSigned(column) ? new LongBuilder(name, column) : new DecimalBuilder(name, column);
+            // Unsigned INT values may not fit into an int
+            case INTEGER -> meta.isSigned(column) ? new IntBuilder(name, column) : new LongBuilder(name, column);
+            case TINYINT, SMALLINT, BIT, BOOLEAN -> new IntBuilder(name, column);
+            case REAL, FLOAT, DOUBLE -> new DoubleBuilder(name, column);
+            case DECIMAL, NUMERIC -> new DecimalBuilder(name, column);
+            case CHAR, VARCHAR, LONGVARCHAR, NCHAR, NVARCHAR, LONGNVARCHAR -> new DictionaryBuilder(name, column);
+            default -> throw new UnsupportedOperationException("Column `%s` of type %s cannot be read into a columnar batch.".formatted(name, type.getName()));
+        };
+    }
+
+    void read(ResultSet resultSet) throws SQLException
+    {
+        this.readValue(resultSet);
+
+        if (resultSet.wasNull())
+            this.nulls.set(this.rows);
+
+        this.rows++;
+    }
+
+    protected abstract void readValue(ResultSet resultSet) throws SQLException;
+
+    abstract ColumnVector build();
+
+    private static final class LongBuilder extends ColumnBuilder
+    {
+        private final ChunkedArray<long[]> values = new ChunkedArray<>(long[]::new);
+
+        private LongBuilder(String name, int column)
+        {
+            super(name, column);
+        }
+
+        @Override
+        protected void readValue(ResultSet resultSet) throws SQLException
+        {
+            var idx = this.values.claim();
+            this.values.current()[idx] = resultSet.getLong(this.column);
+        }
+
+        @Override
+        ColumnVector build()
+        {
+            return new LongVector(this.name, this.values.toArray(), this.nulls);
+        }
+    }
+
+    private static final class IntBuilder extends ColumnBuilder
+    {
+        private final ChunkedArray<int[]> values = new ChunkedArray<>(int[]::new);
+
+        private IntBuilder(String name, int column)
+        {
+            super(name, column);
+        }
+
+        @Override
+        protected void readValue(ResultSet resultSet) throws SQLException
+        {
+            var idx = this.values.claim();
+            this.values.current()[idx] = resultSet.getInt(this.column);
+        }
+
+        @Override
+        ColumnVector build()
+        {
+            return new IntVector(this.name, this.values.toArray(), this.nulls);
+        }
+    }
+
+    private static final class DoubleBuilder extends ColumnBuilder
+    {
+        private final ChunkedArray<double[]> values = new ChunkedArray<>(double[]::new);
+
+        private DoubleBuilder(String name, int column)
+        {
+            super(name, column);
+        }
+
+        @Override
+        protected void readValue(ResultSet resultSet) throws SQLException
+        {
+            var idx = this.values.claim();
+            this.values.current()[idx] = resultSet.getDouble(this.column);
+        }
+
+        @Override
+        ColumnVector build()
+        {
+            return new DoubleVector(this.name, this.values.toArray(), this.nulls);
+        }
+    }
+
+    private static final class DecimalBuilder extends ColumnBuilder
+    {
+        private final ChunkedArray<BigDecimal[]> values = new ChunkedArray<>(BigDecimal[]::new);
+
+        private DecimalBuilder(String name, int column)
+        {
+            super(name, column);
+        }
+
+        @Override
+        protected void readValue(ResultSet resultSet) throws SQLException
+        {
+            var idx = this.values.claim();
+            this.values.current()[idx] = resultSet.getBigDecimal(this.column);
+        }
+
+        @Override
+        ColumnVector build()
+        {
+            return new DecimalVector(this.name, this.values.toArray(), this.nulls);
+        }
+    }
+
+    private static final class DictionaryBuilder extends ColumnBuilder
+    {
+        private final ChunkedArray<int[]> codes = new ChunkedArray<>(int[]::new);
+        private final HashMap<String, Integer> codesByValue = new HashMap<>();
+        private final ArrayList<String> dictionary = new ArrayList<>();
+
+        private DictionaryBuilder(String name, int column)
+        {
+            super(name, column);
+        }
+
+        @Override
+        protected void readValue(ResultSet resultSet) throws SQLException
+        {
+            var value = resultSet.getString(this.column);
+            var idx = this.codes.claim();
+
+            if (value == null)
+            {
+                this.codes.current()[idx] = StringVector.NULL_CODE;
+                return;
+            }
+
+            var code = this.codesByValue.get(value);
+
+            if (code == null)
+            {
+                code = this.dictionary.size();
+                this.codesByValue.put(value, code);
+                this.dictionary.add(value);
+            }
+
+            this.codes.current()[idx] = code;
+        }
+
+        @Override
+        ColumnVector build()
+        {
+            return new StringVector(this.name, this.codes.toArray(), this.dictionary.toArray(String[]::new), this.nulls);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.util.BitSet;
+
+/**
+ * One column of a {@link ColumnarBatch}, the values are stored in a single array indexed by row.
+ *
+ * Null values are tracked in a bitmap, their slot in the value array holds zero or null.
+ */
+public abstract sealed class ColumnVector permits LongVector, IntVector, DoubleVector, DecimalVector, StringVector
+{
+    private final String name;
+    private final int size;
+    protected final BitSet nulls;
+
+    ColumnVector(String name, int size, BitSet nulls)
+    {
+        this.name = name;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    public String getName()
+    {
+        return this.name;
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean isNull(int row)
+    {
+        return this.nulls.get(row);
+    }
+
+    public int getNullCount()
+    {
+        return this.nulls.cardinality();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "%s %s[%d]".formatted(this.getClass().getSimpleName(), this.name, this.size);
+    }
+}
@@ -0,0 +1,136 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * A column-oriented result set, every column is stored in a single primitive array
+ * so aggregations run as tight loops instead of walking row objects.
+ *
+ * <pre>{@code
+ * var batch = db.getColumnar("SELECT `us_id`, `us_coins` FROM `users`");
+ * var coins = batch.getLongVector("us_coins");
+ * var rich = coins.filter(c -> c > 1_000_000);
+ * var total = coins.sum(rich);
+ * }</pre>
+ *
+ * Integer columns map to {@link LongVector} or {@link IntVector}, floating point columns to {@link DoubleVector},
+ * decimals to {@link DecimalVector} and character columns to the dictionary-encoded {@link StringVector}.
+ * Other column types are not supported.
+ */
+public final class ColumnarBatch
+{
+    private final int rowCount;
+    private final List<ColumnVector> columns;
+    private final Map<String, ColumnVector> columnsByName;
+
+    private ColumnarBatch(int rowCount, List<ColumnVector> columns)
+    {
+        this.rowCount = rowCount;
+        this.columns = Collections.unmodifiableList(columns);
+        this.columnsByName = new HashMap<>();
+
+        for (var column : columns)
+            this.columnsByName.putIfAbsent(column.getName(), column);
+    }
+
+    /**
+     * Reads all remaining rows of the result set.
+     */
+    public static ColumnarBatch read(ResultSet resultSet) throws SQLException
+    {
+        var meta = resultSet.getMetaData();
+        var colCount = meta.getColumnCount();
+        var builders = new ColumnBuilder[colCount];
+
+        for (int i = 0; i < colCount; i++)
+            builders[i] = ColumnBuilder.forColumn(meta, i + 1);
+
+        var rowCount = 0;
+
+        while (resultSet.next())
+        {
+            for (var builder : builders)
+                builder.read(resultSet);
+
+            rowCount++;
+        }
+
+        var columns = new ArrayList<ColumnVector>(colCount);
+
+        for (var builder : builders)
+            columns.add(builder.build());
+
+        return new ColumnarBatch(rowCount, columns);
+    }
+
+    public int getRowCount()
+    {
+        return this.rowCount;
+    }
+
+    public List<ColumnVector> getColumns()
+    {
+        return this.columns;
+    }
+
+    public ColumnVector getColumn(int idx)
+    {
+        return this.columns.get(idx);
+    }
+
+    /**
+     * Columns are looked up by their label, so aliases from the statement apply.
+     */
+    public ColumnVector getColumn(String name)
+    {
+        var column = this.columnsByName.get(name);
+
+        if (column == null)
+            throw new NoSuchElementException("No column named `%s` in this batch.".formatted(name));
+
+        return column;
+    }
+
+    public LongVector getLongVector(String name)
+    {
+        return this.getColumn(name, LongVector.class);
+    }
+
+    public IntVector getIntVector(String name)
+    {
+        return this.getColumn(name, IntVector.class);
+    }
+
+    public DoubleVector getDoubleVector(String name)
+    {
+        return this.getColumn(name, DoubleVector.class);
+    }
+
+    public DecimalVector getDecimalVector(String name)
+    {
+        return this.getColumn(name, DecimalVector.class);
+    }
+
+    public StringVector getStringVector(String name)
+    {
+        return this.getColumn(name, StringVector.class);
+    }
+
+    private <V extends ColumnVector> V getColumn(String name, Class<V> vectorType)
+    {
+        var column = this.getColumn(name);
+
+        if (!vectorType.isInstance(column))
+            throw new IllegalArgumentException("Column `%s` is a %s, not a %s.".formatted(name, column.getClass().getSimpleName(), vectorType.getSimpleName()));
+
+        return vectorType.cast(column);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "columnar-batch { rows: %d, columns: %s }".formatted(this.rowCount, this.columns);
+    }
+}
@@ -0,0 +1,108 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public final class DecimalVector extends ColumnVector
+{
+    private final BigDecimal[] values;
+
+    DecimalVector(String name, BigDecimal[] values, BitSet nulls)
+    {
+        super(name, values.length, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @return the value, or null
+     */
+    public BigDecimal get(int row)
+    {
+        return this.values[row];
+    }
+
+    /**
+     * @return the backing array, which must not be modified
+     */
+    public BigDecimal[] getValues()
+    {
+        return this.values;
+    }
+
+    /**
+     * Null values are skipped.
+     */
+    public BigDecimal sum()
+    {
+        var sum = BigDecimal.ZERO;
+
+        for (var value : this.values)
+        {
+            if (value != null)
+                sum = sum.add(value);
+        }
+
+        return sum;
+    }
+
+    public BigDecimal sum(int[] selection)
+    {
+        var sum = BigDecimal.ZERO;
+
+        for (var row : selection)
+        {
+            var value = this.values[row];
+
+            if (value != null)
+                sum = sum.add(value);
+        }
+
+        return sum;
+    }
+
+    public Optional<BigDecimal> min()
+    {
+        BigDecimal min = null;
+
+        for (var value : this.values)
+        {
+            if (value != null && (min == null || value.compareTo(min) < 0))
+                min = value;
+        }
+
+        return Optional.ofNullable(min);
+    }
+
+    public Optional<BigDecimal> max()
+    {
+        BigDecimal max = null;
+
+        for (var value : this.values)
+        {
+            if (value != null && (max == null || value.compareTo(max) > 0))
+                max = value;
+        }
+
+        return Optional.ofNullable(max);
+    }
+
+    /**
+     * @return the indices of the non-null rows matching the predicate, in ascending order
+     */
+    public int[] filter(Predicate<BigDecimal> predicate)
+    {
+        var selection = new int[this.values.length];
+        var count = 0;
+
+        for (int i = 0; i < this.values.length; i++)
+        {
+            if (this.values[i] != null && predicate.test(this.values[i]))
+                selection[count++] = i;
+        }
+
+        return Arrays.copyOf(selection, count);
+    }
+}
@@ -0,0 +1,121 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.OptionalDouble;
+import java.util.function.DoublePredicate;
+
+public final class DoubleVector extends ColumnVector
+{
+    private final double[] values;
+
+    DoubleVector(String name, double[] values, BitSet nulls)
+    {
+        super(name, values.length, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @return the value, zero for null
+     */
+    public double get(int row)
+    {
+        return this.values[row];
+    }
+
+    /**
+     * @return the backing array, which must not be modified, nulls are stored as zero
+     */
+    public double[] getValues()
+    {
+        return this.values;
+    }
+
+    /**
+     * Null values are stored as zero and don't affect the sum.
+     */
+    public double sum()
+    {
+        var sum = 0.0;
+
+        for (var value : this.values)
+            sum += value;
+
+        return sum;
+    }
+
+    public double sum(int[] selection)
+    {
+        var sum = 0.0;
+
+        for (var row : selection)
+            sum += this.values[row];
+
+        return sum;
+    }
+
+    public OptionalDouble min()
+    {
+        if (this.getNullCount() == this.size())
+            return OptionalDouble.empty();
+
+        var min = Double.POSITIVE_INFINITY;
+
+        if (this.nulls.isEmpty())
+        {
+            for (var value : this.values)
+                min = Math.min(min, value);
+        }
+        else
+        {
+            for (int i = 0; i < this.values.length; i++)
+            {
+                if (!this.nulls.get(i))
+                    min = Math.min(min, this.values[i]);
+            }
+        }
+
+        return OptionalDouble.of(min);
+    }
+
+    public OptionalDouble max()
+    {
+        if (this.getNullCount() == this.size())
+            return OptionalDouble.empty();
+
+        var max = Double.NEGATIVE_INFINITY;
+
+        if (this.nulls.isEmpty())
+        {
+            for (var value : this.values)
+                max = Math.max(max, value);
+        }
+        else
+        {
+            for (int i = 0; i < this.values.length; i++)
+            {
+                if (!this.nulls.get(i))
+                    max = Math.max(max, this.values[i]);
+            }
+        }
+
+        return OptionalDouble.of(max);
+    }
+
+    /**
+     * @return the indices of the non-null rows matching the predicate, in ascending order
+     */
+    public int[] filter(DoublePredicate predicate)
+    {
+        var selection = new int[this.values.length];
+        var count = 0;
+
+        for (int i = 0; i < this.values.length; i++)
+        {
+            if (predicate.test(this.values[i]) && !this.nulls.get(i))
+                selection[count++] = i;
+        }
+
+        return Arrays.copyOf(selection, count);
+    }
+}
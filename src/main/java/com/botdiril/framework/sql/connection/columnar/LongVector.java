@@ -0,0 +1,121 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.OptionalLong;
+import java.util.function.LongPredicate;
+
+public final class LongVector extends ColumnVector
+{
+    private final long[] values;
+
+    LongVector(String name, long[] values, BitSet nulls)
+    {
+        super(name, values.length, nulls);
+        this.values = values;
+    }
+
+    /**
+     * @return the value, zero for null
+     */
+    public long get(int row)
+    {
+        return this.values[row];
+    }
+
+    /**
+     * @return the backing array, which must not be modified, nulls are stored as zero
+     */
+    public long[] getValues()
+    {
+        return this.values;
+    }
+
+    /**
+     * Null values are stored as zero and don't affect the sum.
+     */
+    public long sum()
+    {
+        var sum = 0L;
+
+        for (var value : this.values)
+            sum += value;
+
+        return sum;
+    }
+
+    public long sum(int[] selection)
+    {
+        var sum = 0L;
+
+        for (var row : selection)
+            sum += this.values[row];
+
+        return sum;
+    }
+
+    public OptionalLong min()
+    {
+        if (this.getNullCount() == this.size())
+            return OptionalLong.empty();
+
+        var min = Long.MAX_VALUE;
+
+        if (this.nulls.isEmpty())
+        {
+            for (var value : this.values)
+                min = Math.min(min, value);
+        }
+        else
+        {
+            for (int i = 0; i < this.values.length; i++)
+            {
+                if (!this.nulls.get(i))
+                    min = Math.min(min, this.values[i]);
+            }
+        }
+
+        return OptionalLong.of(min);
+    }
+
+    public OptionalLong max()
+    {
+        if (this.getNullCount() == this.size())
+            return OptionalLong.empty();
+
+        var max = Long.MIN_VALUE;
+
+        if (this.nulls.isEmpty())
+        {
+            for (var value : this.values)
+                max = Math.max(max, value);
+        }
+        else
+        {
+            for (int i = 0; i < this.values.length; i++)
+            {
+                if (!this.nulls.get(i))
+                    max = Math.max(max, this.values[i]);
+            }
+        }
+
+        return OptionalLong.of(max);
+    }
+
+    /**
+     * @return the indices of the non-null rows matching the predicate, in ascending order
+     */
+    public int[] filter(LongPredicate predicate)
+    {
+        var selection = new int[this.values.length];
+        var count = 0;
+
+        for (int i = 0; i < this.values.length; i++)
+        {
+            if (predicate.test(this.values[i]) && !this.nulls.get(i))
+                selection[count++] = i;
+        }
+
+        return Arrays.copyOf(selection, count);
+    }
+}
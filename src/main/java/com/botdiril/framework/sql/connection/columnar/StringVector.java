@@ -0,0 +1,98 @@
+package com.botdiril.framework.sql.connection.columnar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.Predicate;
+
+/**
+ * A dictionary-encoded string column, every row stores the code of its value in the dictionary.
+ *
+ * Predicates are evaluated once per distinct value instead of once per row.
+ */
+public final class StringVector extends ColumnVector
+{
+    /**
+     * The code of null values.
+     */
+    public static final int NULL_CODE = -1;
+
+    private final int[] codes;
+    private final String[] dictionary;
+
+    StringVector(String name, int[] codes, String[] dictionary, BitSet nulls)
+    {
+        super(name, codes.length, nulls);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @return the value, or null
+     */
+    public String get(int row)
+    {
+        var code = this.codes[row];
+        return code == NULL_CODE ? null : this.dictionary[code];
+    }
+
+    public int getCode(int row)
+    {
+        return this.codes[row];
+    }
+
+    /**
+     * @return the backing array of codes, which must not be modified
+     */
+    public int[] getCodes()
+    {
+        return this.codes;
+    }
+
+    /**
+     * @return the distinct values in order of their first occurrence, which must not be modified
+     */
+    public String[] getDictionary()
+    {
+        return this.dictionary;
+    }
+
+    /**
+     * @return the number of rows per dictionary code
+     */
+    public int[] countByCode()
+    {
+        var counts = new int[this.dictionary.length];
+
+        for (var code : this.codes)
+        {
+            if (code != NULL_CODE)
+                counts[code]++;
+        }
+
+        return counts;
+    }
+
+    /**
+     * @return the indices of the non-null rows matching the predicate, in ascending order
+     */
+    public int[] filter(Predicate<String> predicate)
+    {
+        var matches = new boolean[this.dictionary.length];
+
+        for (int i = 0; i < this.dictionary.length; i++)
+            matches[i] = predicate.test(this.dictionary[i]);
+
+        var selection = new int[this.codes.length];
+        var count = 0;
+
+        for (int i = 0; i < this.codes.length; i++)
+        {
+            var code = this.codes[i];
+
+            if (code != NULL_CODE && matches[code])
+                selection[count++] = i;
+        }
+
+        return Arrays.copyOf(selection, count);
+    }
+}
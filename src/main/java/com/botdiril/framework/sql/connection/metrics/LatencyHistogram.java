@@ -0,0 +1,101 @@
+package com.botdiril.framework.sql.connection.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency histogram with fixed power-of-two buckets, from one microsecond up to about 9 minutes.
+ *
+ * Recording is a few striped counter increments, percentiles are accurate to the bucket width.
+ */
+public final class LatencyHistogram
+{
+    private static final int BUCKETS = 31;
+    private static final long NANOS_PER_MICRO = 1_000;
+
+    public record Snapshot(long count, long totalNanos, long maxNanos, long[] buckets)
+    {
+        public double meanMillis()
+        {
+            return this.count == 0 ? 0 : this.totalNanos / 1e6 / this.count;
+        }
+
+        public double maxMillis()
+        {
+            return this.maxNanos / 1e6;
+        }
+
+        /**
+         * @return the upper bound of the bucket containing the percentile, capped at the maximum recorded value
+         */
+        public double percentileMillis(double percentile)
+        {
+            if (this.count == 0)
+                return 0;
+
+            var rank = (long) Math.ceil(this.count * percentile / 100.0);
+            var seen = 0L;
+
+            for (int i = 0; i < this.buckets.length; i++)
+            {
+                seen += this.buckets[i];
+
+                if (seen >= rank)
+                    return Math.min(getBucketUpperBoundNanos(i), this.maxNanos) / 1e6;
+            }
+
+            return this.maxMillis();
+        }
+    }
+
+    private final LongAdder[] buckets;
+    private final LongAdder count;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+
+    public LatencyHistogram()
+    {
+        this.buckets = new LongAdder[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++)
+            this.buckets[i] = new LongAdder();
+
+        this.count = new LongAdder();
+        this.totalNanos = new LongAdder();
+        this.maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    public void record(long nanos)
+    {
+        var micros = Math.max(nanos, 0) / NANOS_PER_MICRO;
+        var bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+
+        this.buckets[bucket].increment();
+        this.count.increment();
+        this.totalNanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+    }
+
+    public long getCount()
+    {
+        return this.count.sum();
+    }
+
+    public Snapshot snapshot()
+    {
+        var counts = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++)
+            counts[i] = this.buckets[i].sum();
+
+        return new Snapshot(this.count.sum(), this.totalNanos.sum(), this.maxNanos.get(), counts);
+    }
+
+    /**
+     * Bucket zero holds values under one microsecond, bucket {@code i} values under 2<sup>i</sup> microseconds.
+     */
+    public static long getBucketUpperBoundNanos(int bucket)
+    {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) * NANOS_PER_MICRO;
+    }
+}
@@ -0,0 +1,361 @@
+package com.botdiril.framework.sql.connection.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import com.botdiril.framework.sql.connection.pool.ConnectionPool;
+import com.botdiril.framework.sql.util.SqlLogger;
+
+/**
+ * The built-in metrics listener, backed by striped counters and fixed-bucket histograms.
+ *
+ * <pre>{@code
+ * var metrics = new SqlMetrics("botdiril");
+ * var config = new SqlConnectionConfig(host, username, password, schema).withMetricsListener(metrics);
+ * }</pre>
+ *
+ * While the pool is open, the metrics are also registered as the {@code com.botdiril.sql:type=SqlMetrics,name=<name>} MXBean.
+ */
+public class SqlMetrics implements SqlMetricsListener, SqlMetricsMXBean
+{
+    private final String name;
+
+    private final LatencyHistogram checkoutWait;
+    private final LongAdder checkoutFailures;
+
+    private final LatencyHistogram[] statementLatency;
+    private final LongAdder statementErrors;
+    private final LongAdder rowsFetched;
+    private final LongAdder rowsUpdated;
+
+    private final LongAdder commits;
+    private final LongAdder rollbacks;
+    private final LongAdder transactionErrors;
+    private final LongAdder transactionRetries;
+    private final LongAdder transactionRetriesExhausted;
+
+    private volatile ConnectionPool pool;
+    private ObjectName objectName;
+
+    public SqlMetrics(String name)
+    {
+        this.name = name;
+
+        this.checkoutWait = new LatencyHistogram();
+        this.checkoutFailures = new LongAdder();
+
+        var kinds = StatementKind.values();
+        this.statementLatency = new LatencyHistogram[kinds.length];
+
+        for (var kind : kinds)
+            this.statementLatency[kind.ordinal()] = new LatencyHistogram();
+
+        this.statementErrors = new LongAdder();
+        this.rowsFetched = new LongAdder();
+        this.rowsUpdated = new LongAdder();
+
+        this.commits = new LongAdder();
+        this.rollbacks = new LongAdder();
+        this.transactionErrors = new LongAdder();
+        this.transactionRetries = new LongAdder();
+        this.transactionRetriesExhausted = new LongAdder();
+    }
+
+    @Override
+    public synchronized void onPoolCreated(ConnectionPool pool)
+    {
+        this.pool = pool;
+
+        try
+        {
+            this.objectName = ObjectName.getInstance("com.botdiril.sql:type=SqlMetrics,name=" + ObjectName.quote(this.name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, this.objectName);
+        }
+        catch (JMException e)
+        {
+            SqlLogger.instance.warn("Failed to register the SQL metrics MXBean `{}`.", this.name, e);
+            this.objectName = null;
+        }
+    }
+
+    @Override
+    public synchronized void onPoolClosed(ConnectionPool pool)
+    {
+        if (this.objectName == null)
+            return;
+
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+        }
+        catch (JMException e)
+        {
+            SqlLogger.instance.warn("Failed to unregister the SQL metrics MXBean `{}`.", this.name, e);
+        }
+
+        this.objectName = null;
+    }
+
+    @Override
+    public void onCheckout(long waitNanos)
+    {
+        this.checkoutWait.record(waitNanos);
+    }
+
+    @Override
+    public void onCheckoutFailure(long waitNanos)
+    {
+        this.checkoutFailures.increment();
+    }
+
+    @Override
+    public void onStatement(StatementKind kind, long elapsedNanos, long rows)
+    {
+        this.statementLatency[kind.ordinal()].record(elapsedNanos);
+
+        if (rows <= 0)
+            return;
+
+        if (kind == StatementKind.QUERY)
+            this.rowsFetched.add(rows);
+        else
+            this.rowsUpdated.add(rows);
+    }
+
+    @Override
+    public void onStatementError()
+    {
+        this.statementErrors.increment();
+    }
+
+    @Override
+    public void onCommit()
+    {
+        this.commits.increment();
+    }
+
+    @Override
+    public void onRollback()
+    {
+        this.rollbacks.increment();
+    }
+
+    @Override
+    public void onTransactionError()
+    {
+        this.transactionErrors.increment();
+    }
+
+    @Override
+    public void onTransactionRetry(int errorCode)
+    {
+        this.transactionRetries.increment();
+    }
+
+    @Override
+    public void onTransactionRetriesExhausted()
+    {
+        this.transactionRetriesExhausted.increment();
+    }
+
+    public SqlMetricsSnapshot snapshot()
+    {
+        var pool = this.pool;
+
+        var latency = new EnumMap<StatementKind, LatencyHistogram.Snapshot>(StatementKind.class);
+
+        for (var kind : StatementKind.values())
+            latency.put(kind, this.statementLatency[kind.ordinal()].snapshot());
+
+        return new SqlMetricsSnapshot(
+            pool != null ? pool.getActiveConnections() : 0,
+            pool != null ? pool.getIdleConnections() : 0,
+            pool != null ? pool.getMaxConnections() : 0,
+            this.checkoutWait.snapshot(),
+            this.checkoutFailures.sum(),
+            latency,
+            this.statementErrors.sum(),
+            this.rowsFetched.sum(),
+            this.rowsUpdated.sum(),
+            this.commits.sum(),
+            this.rollbacks.sum(),
+            this.transactionErrors.sum(),
+            this.transactionRetries.sum(),
+            this.transactionRetriesExhausted.sum()
+        );
+    }
+
+    @Override
+    public int getActiveConnections()
+    {
+        var pool = this.pool;
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    @Override
+    public int getIdleConnections()
+    {
+        var pool = this.pool;
+        return pool != null ? pool.getIdleConnections() : 0;
+    }
+
+    @Override
+    public int getMaxConnections()
+    {
+        var pool = this.pool;
+        return pool != null ? pool.getMaxConnections() : 0;
+    }
+
+    @Override
+    public double getPoolSaturation()
+    {
+        var max = this.getMaxConnections();
+        return max == 0 ? 0 : (double) this.getActiveConnections() / max;
+    }
+
+    @Override
+    public long getCheckoutCount()
+    {
+        return this.checkoutWait.getCount();
+    }
+
+    @Override
+    public long getCheckoutFailures()
+    {
+        return this.checkoutFailures.sum();
+    }
+
+    @Override
+    public double getCheckoutWaitMeanMillis()
+    {
+        return this.checkoutWait.snapshot().meanMillis();
+    }
+
+    @Override
+    public double getCheckoutWaitP99Millis()
+    {
+        return this.checkoutWait.snapshot().percentileMillis(99);
+    }
+
+    @Override
+    public double getCheckoutWaitMaxMillis()
+    {
+        return this.checkoutWait.snapshot().maxMillis();
+    }
+
+    @Override
+    public long getQueryCount()
+    {
+        return this.latency(StatementKind.QUERY).getCount();
+    }
+
+    @Override
+    public double getQueryMeanMillis()
+    {
+        return this.latency(StatementKind.QUERY).snapshot().meanMillis();
+    }
+
+    @Override
+    public double getQueryP99Millis()
+    {
+        return this.latency(StatementKind.QUERY).snapshot().percentileMillis(99);
+    }
+
+    @Override
+    public long getUpdateCount()
+    {
+        return this.latency(StatementKind.UPDATE).getCount();
+    }
+
+    @Override
+    public double getUpdateMeanMillis()
+    {
+        return this.latency(StatementKind.UPDATE).snapshot().meanMillis();
+    }
+
+    @Override
+    public double getUpdateP99Millis()
+    {
+        return this.latency(StatementKind.UPDATE).snapshot().percentileMillis(99);
+    }
+
+    @Override
+    public long getBatchCount()
+    {
+        return this.latency(StatementKind.BATCH).getCount();
+    }
+
+    @Override
+    public double getBatchP99Millis()
+    {
+        return this.latency(StatementKind.BATCH).snapshot().percentileMillis(99);
+    }
+
+    @Override
+    public long getExecuteCount()
+    {
+        return this.latency(StatementKind.EXECUTE).getCount();
+    }
+
+    @Override
+    public double getExecuteP99Millis()
+    {
+        return this.latency(StatementKind.EXECUTE).snapshot().percentileMillis(99);
+    }
+
+    @Override
+    public long getStatementErrors()
+    {
+        return this.statementErrors.sum();
+    }
+
+    @Override
+    public long getRowsFetched()
+    {
+        return this.rowsFetched.sum();
+    }
+
+    @Override
+    public long getRowsUpdated()
+    {
+        return this.rowsUpdated.sum();
+    }
+
+    @Override
+    public long getCommits()
+    {
+        return this.commits.sum();
+    }
+
+    @Override
+    public long getRollbacks()
+    {
+        return this.rollbacks.sum();
+    }
+
+    @Override
+    public long getTransactionErrors()
+    {
+        return this.transactionErrors.sum();
+    }
+
+    @Override
+    public long getTransactionRetries()
+    {
+        return this.transactionRetries.sum();
+    }
+
+    @Override
+    public long getTransactionRetriesExhausted()
+    {
+        return this.transactionRetriesExhausted.sum();
+    }
+
+    private LatencyHistogram latency(StatementKind kind)
+    {
+        return this.statementLatency[kind.ordinal()];
+    }
+}
@@ -0,0 +1,70 @@
+package com.botdiril.framework.sql.connection.metrics;
+
+import com.botdiril.framework.sql.connection.pool.ConnectionPool;
+
+/**
+ * Receives connection, statement and transaction events from a connection manager.
+ *
+ * Callbacks run on the thread doing the work, so implementations must be thread-safe and cheap.
+ * See {@link SqlMetrics} for the built-in implementation.
+ */
+public interface SqlMetricsListener
+{
+    SqlMetricsListener NONE = new SqlMetricsListener() { };
+
+    default void onPoolCreated(ConnectionPool pool)
+    {
+    }
+
+    default void onPoolClosed(ConnectionPool pool)
+    {
+    }
+
+    default void onCheckout(long waitNanos)
+    {
+    }
+
+    default void onCheckoutFailure(long waitNanos)
+    {
+    }
+
+    /**
+     * @param rows the rows fetched by a query or updated by an update, negative when unknown
+     */
+    default void onStatement(StatementKind kind, long elapsedNanos, long rows)
+    {
+    }
+
+    default void onStatementError()
+    {
+    }
+
+    default void onCommit()
+    {
+    }
+
+    /**
+     * Only explicit rollbacks are reported, not the implicit rollback when a connection is closed.
+     */
+    default void onRollback()
+    {
+    }
+
+    default void onTransactionError()
+    {
+    }
+
+    /**
+     * @param errorCode the MySQL error code that aborted the previous attempt
+     */
+    default void onTransactionRetry(int errorCode)
+    {
+    }
+
+    /**
+     * Called when a retryable transaction fails for good, because it ran out of attempts or the retry budget is spent.
+     */
+    default void onTransactionRetriesExhausted()
+    {
+    }
+}
@@ -0,0 +1,61 @@
+package com.botdiril.framework.sql.connection.metrics;
+
+/**
+ * The JMX view of {@link SqlMetrics}, latencies are in milliseconds.
+ */
+public interface SqlMetricsMXBean
+{
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getMaxConnections();
+
+    double getPoolSaturation();
+
+    long getCheckoutCount();
+
+    long getCheckoutFailures();
+
+    double getCheckoutWaitMeanMillis();
+
+    double getCheckoutWaitP99Millis();
+
+    double getCheckoutWaitMaxMillis();
+
+    long getQueryCount();
+
+    double getQueryMeanMillis();
+
+    double getQueryP99Millis();
+
+    long getUpdateCount();
+
+    double getUpdateMeanMillis();
+
+    double getUpdateP99Millis();
+
+    long getBatchCount();
+
+    double getBatchP99Millis();
+
+    long getExecuteCount();
+
+    double getExecuteP99Millis();
+
+    long getStatementErrors();
+
+    long getRowsFetched();
+
+    long getRowsUpdated();
+
+    long getCommits();
+
+    long getRollbacks();
+
+    long getTransactionErrors();
+
+    long getTransactionRetries();
+
+    long getTransactionRetriesExhausted();
+}
@@ -0,0 +1,48 @@
+package com.botdiril.framework.sql.connection.metrics;
+
+import java.util.Map;
+
+public record SqlMetricsSnapshot(
+    int activeConnections,
+    int idleConnections,
+    int maxConnections,
+    LatencyHistogram.Snapshot checkoutWait,
+    long checkoutFailures,
+    Map<StatementKind, LatencyHistogram.Snapshot> statementLatency,
+    long statementErrors,
+    long rowsFetched,
+    long rowsUpdated,
+    long commits,
+    long rollbacks,
+    long transactionErrors,
+    long transactionRetries,
+    long transactionRetriesExhausted
+)
+{
+    /**
+     * @return the fraction of the pool in use, a value close to one means checkouts are about to start waiting
+     */
+    public double poolSaturation()
+    {
+        return this.maxConnections == 0 ? 0 : (double) this.activeConnections / this.maxConnections;
+    }
+
+    @Override
+    public String toString()
+    {
+        var sb = new StringBuilder();
+
+        sb.append("pool { active: %d, idle: %d, max: %d, saturation: %.2f }%n".formatted(this.activeConnections, this.idleConnections, this.maxConnections, this.poolSaturation()));
+        sb.append("checkout { count: %d, failures: %d, mean: %.3f ms, p99: %.3f ms, max: %.3f ms }%n".formatted(this.checkoutWait.count(), this.checkoutFailures,
+            this.checkoutWait.meanMillis(), this.checkoutWait.percentileMillis(99), this.checkoutWait.maxMillis()));
+
+        this.statementLatency.forEach((kind, latency) -> sb.append("%s { count: %d, mean: %.3f ms, p99: %.3f ms, max: %.3f ms }%n".formatted(kind.name().toLowerCase(),
+            latency.count(), latency.meanMillis(), latency.percentileMillis(99), latency.maxMillis())));
+
+        sb.append("statements { errors: %d, rows fetched: %d, rows updated: %d }%n".formatted(this.statementErrors, this.rowsFetched, this.rowsUpdated));
+        sb.append("transactions { commits: %d, rollbacks: %d, errors: %d, retries: %d, retries exhausted: %d }".formatted(this.commits, this.rollbacks,
+            this.transactionErrors, this.transactionRetries, this.transactionRetriesExhausted));
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,9 @@
+package com.botdiril.framework.sql.connection.metrics;
+
+public enum StatementKind
+{
+    QUERY,
+    UPDATE,
+    BATCH,
+    EXECUTE
+}
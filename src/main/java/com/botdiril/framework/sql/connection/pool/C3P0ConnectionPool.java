@@ -0,0 +1,86 @@
+package com.botdiril.framework.sql.connection.pool;
+
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+
+import java.beans.PropertyVetoException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.util.DBException;
+
+public class C3P0ConnectionPool implements ConnectionPool
+{
+    private static final int IDLE_CONNECTION_TEST_PERIOD = 60;
+    private static final int MAX_CONNECTION_AGE = 60 * 60;
+
+    private final ComboPooledDataSource dataSource;
+
+    public C3P0ConnectionPool(String jdbcURL, SqlConnectionConfig config) throws SQLException
+    {
+        this.dataSource = new ComboPooledDataSource();
+
+        try
+        {
+            this.dataSource.setDriverClass(SqlEngine.DRIVER_CLASS.getName());
+        }
+        catch (PropertyVetoException e)
+        {
+            throw new SQLException(e);
+        }
+
+        this.dataSource.setIdleConnectionTestPeriod(IDLE_CONNECTION_TEST_PERIOD);
+        this.dataSource.setTestConnectionOnCheckin(true);
+        this.dataSource.setMaxConnectionAge(MAX_CONNECTION_AGE);
+        this.dataSource.setMaxPoolSize(config.maxPoolSize());
+        this.dataSource.setJdbcUrl(jdbcURL);
+        this.dataSource.setUser(config.username());
+        this.dataSource.setPassword(config.password());
+        this.dataSource.setAutoCommitOnClose(false);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException
+    {
+        return this.dataSource.getConnection();
+    }
+
+    @Override
+    public int getActiveConnections()
+    {
+        try
+        {
+            return this.dataSource.getNumBusyConnectionsDefaultUser();
+        }
+        catch (SQLException e)
+        {
+            throw new DBException(e);
+        }
+    }
+
+    @Override
+    public int getIdleConnections()
+    {
+        try
+        {
+            return this.dataSource.getNumIdleConnectionsDefaultUser();
+        }
+        catch (SQLException e)
+        {
+            throw new DBException(e);
+        }
+    }
+
+    @Override
+    public int getMaxConnections()
+    {
+        return this.dataSource.getMaxPoolSize();
+    }
+
+    @Override
+    public void close() throws DBException
+    {
+        this.dataSource.close();
+    }
+}
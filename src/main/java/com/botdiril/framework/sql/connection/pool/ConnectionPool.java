@@ -0,0 +1,20 @@
+package com.botdiril.framework.sql.connection.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.botdiril.framework.sql.IDBResource;
+
+/**
+ * A source of pooled connections, closing a checked out connection returns it to the pool.
+ */
+public interface ConnectionPool extends IDBResource
+{
+    Connection getConnection() throws SQLException;
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getMaxConnections();
+}
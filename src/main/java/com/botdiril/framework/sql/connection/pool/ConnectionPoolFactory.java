@@ -0,0 +1,15 @@
+package com.botdiril.framework.sql.connection.pool;
+
+import java.sql.SQLException;
+
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+
+@FunctionalInterface
+public interface ConnectionPoolFactory
+{
+    ConnectionPoolFactory C3P0 = C3P0ConnectionPool::new;
+
+    ConnectionPoolFactory LIGHTWEIGHT = LightweightConnectionPool::new;
+
+    ConnectionPool create(String jdbcURL, SqlConnectionConfig config) throws SQLException;
+}
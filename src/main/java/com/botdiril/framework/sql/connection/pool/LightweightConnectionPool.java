@@ -0,0 +1,368 @@
+package com.botdiril.framework.sql.connection.pool;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.util.DBException;
+import com.botdiril.framework.sql.util.SqlLogger;
+
+/**
+ * A low-contention connection pool.
+ *
+ * Connections live in a concurrent bag, where each entry is claimed by a CAS on its state.
+ * Every thread first tries the connection it used last, which is usually free and avoids scanning the bag.
+ * Idle connections are validated in the background, so a checkout never does a round trip to the server.
+ *
+ * Threads wait for a connection parked on a semaphore. The housekeeper takes a permit for the connection
+ * it validates, so a thread holding a permit always finds an idle connection or free capacity.
+ */
+public class LightweightConnectionPool implements ConnectionPool
+{
+    private static final long CHECKOUT_TIMEOUT_MILLIS = 30_000;
+    private static final long VALIDATION_PERIOD_MILLIS = 30_000;
+    private static final long MAX_CONNECTION_AGE_MILLIS = 60 * 60 * 1000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    /**
+     * Backoff while racing other threads for the entry guaranteed by a permit.
+     */
+    private static final long BORROW_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final int STATE_IDLE = 0;
+    private static final int STATE_IN_USE = 1;
+    private static final int STATE_RESERVED = 2;
+    private static final int STATE_REMOVED = 3;
+
+    private static final class PooledEntry
+    {
+        private final Connection connection;
+        private final long createdAt;
+        private final AtomicInteger state;
+        private volatile long lastReleasedAt;
+
+        private PooledEntry(Connection connection)
+        {
+            this.connection = connection;
+            this.createdAt = System.currentTimeMillis();
+            this.lastReleasedAt = this.createdAt;
+            this.state = new AtomicInteger(STATE_IN_USE);
+        }
+    }
+
+    private final String jdbcURL;
+    private final String username;
+    private final String password;
+    private final int maxConnections;
+
+    private final List<PooledEntry> entries;
+    /**
+     * Weakly held, so connections discarded from the pool are not kept reachable by the threads that used them.
+     */
+    private final ThreadLocal<WeakReference<PooledEntry>> lastEntry;
+
+    /**
+     * One permit per connection that can still be checked out.
+     */
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections;
+    private final AtomicInteger activeConnections;
+
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public LightweightConnectionPool(String jdbcURL, SqlConnectionConfig config)
+    {
+        this.jdbcURL = jdbcURL;
+        this.username = config.username();
+        this.password = config.password();
+        this.maxConnections = config.maxPoolSize();
+
+        this.entries = new CopyOnWriteArrayList<>();
+        this.lastEntry = new ThreadLocal<>();
+        this.permits = new Semaphore(this.maxConnections);
+        this.totalConnections = new AtomicInteger();
+        this.activeConnections = new AtomicInteger();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "botdiril-sql-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.housekeeper.scheduleWithFixedDelay(this::validateIdle, VALIDATION_PERIOD_MILLIS, VALIDATION_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException
+    {
+        if (this.closed)
+            throw new SQLException("The connection pool is closed.");
+
+        try
+        {
+            if (!this.permits.tryAcquire(CHECKOUT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+                throw new SQLTimeoutException("Timed out while waiting for a connection, all %d connections are in use.".formatted(this.maxConnections));
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        }
+
+        try
+        {
+            var entry = this.borrow();
+            this.activeConnections.incrementAndGet();
+            return this.createProxy(entry);
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    private PooledEntry borrow() throws SQLException
+    {
+        var preferredRef = this.lastEntry.get();
+        var preferred = preferredRef != null ? preferredRef.get() : null;
+
+        if (preferred != null)
+        {
+            if (preferred.state.compareAndSet(STATE_IDLE, STATE_IN_USE))
+                return preferred;
+
+            if (preferred.state.get() == STATE_REMOVED)
+                this.lastEntry.remove();
+        }
+
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CHECKOUT_TIMEOUT_MILLIS);
+
+        // Holding a permit guarantees an idle entry or free capacity, retries only happen when racing other threads
+        while (true)
+        {
+            for (var entry : this.entries)
+            {
+                if (entry.state.compareAndSet(STATE_IDLE, STATE_IN_USE))
+                {
+                    this.lastEntry.set(new WeakReference<>(entry));
+                    return entry;
+                }
+            }
+
+            var total = this.totalConnections.get();
+
+            if (total < this.maxConnections && this.totalConnections.compareAndSet(total, total + 1))
+            {
+                try
+                {
+                    var entry = new PooledEntry(DriverManager.getConnection(this.jdbcURL, this.username, this.password));
+                    this.entries.add(entry);
+                    this.lastEntry.set(new WeakReference<>(entry));
+                    return entry;
+                }
+                catch (SQLException | RuntimeException e)
+                {
+                    this.totalConnections.decrementAndGet();
+                    throw e;
+                }
+            }
+
+            if (System.nanoTime() > deadline)
+                throw new SQLTimeoutException("Timed out while waiting for a free connection entry.");
+
+            LockSupport.parkNanos(BORROW_RETRY_NANOS);
+        }
+    }
+
+    private void release(PooledEntry entry)
+    {
+        try
+        {
+            var connection = entry.connection;
+
+            if (!connection.getAutoCommit())
+                connection.rollback();
+
+            entry.lastReleasedAt = System.currentTimeMillis();
+
+            if (this.closed)
+                this.discard(entry);
+            else
+                entry.state.set(STATE_IDLE);
+        }
+        catch (SQLException e)
+        {
+            SqlLogger.instance.warn("Failed to reset a returned connection, discarding it.", e);
+            this.discard(entry);
+        }
+        finally
+        {
+            this.activeConnections.decrementAndGet();
+            this.permits.release();
+        }
+    }
+
+    private void discard(PooledEntry entry)
+    {
+        entry.state.set(STATE_REMOVED);
+
+        if (this.entries.remove(entry))
+            this.totalConnections.decrementAndGet();
+
+        try
+        {
+            entry.connection.close();
+        }
+        catch (SQLException e)
+        {
+            SqlLogger.instance.warn("Failed to close a pooled connection.", e);
+        }
+    }
+
+    private void validateIdle()
+    {
+        var now = System.currentTimeMillis();
+
+        for (var entry : this.entries)
+        {
+            // Borrowers park on the semaphore instead of finding only reserved entries, a busy pool skips the validation
+            if (!this.permits.tryAcquire())
+                return;
+
+            try
+            {
+                if (!entry.state.compareAndSet(STATE_IDLE, STATE_RESERVED))
+                    continue;
+
+                this.validate(entry, now);
+            }
+            finally
+            {
+                this.permits.release();
+            }
+        }
+    }
+
+    private void validate(PooledEntry entry, long now)
+    {
+        try
+        {
+            if (now - entry.createdAt > MAX_CONNECTION_AGE_MILLIS)
+            {
+                this.discard(entry);
+                return;
+            }
+
+            if (now - entry.lastReleasedAt > VALIDATION_PERIOD_MILLIS && !entry.connection.isValid(VALIDATION_TIMEOUT_SECONDS))
+            {
+                SqlLogger.instance.info("Discarding a broken idle connection.");
+                this.discard(entry);
+                return;
+            }
+
+            entry.state.set(STATE_IDLE);
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            SqlLogger.instance.warn("Idle connection validation failed.", e);
+            this.discard(entry);
+        }
+    }
+
+    private Connection createProxy(PooledEntry entry)
+    {
+        var handler = new InvocationHandler() {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+            {
+                switch (method.getName())
+                {
+                    case "close" -> {
+                        if (!this.closed)
+                        {
+                            this.closed = true;
+                            LightweightConnectionPool.this.release(entry);
+                        }
+
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return this.closed || entry.connection.isClosed();
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "PooledConnection[" + entry.connection + "]";
+                    }
+                }
+
+                if (this.closed)
+                    throw new SQLException("The connection has already been returned to the pool.");
+
+                try
+                {
+                    return method.invoke(entry.connection, args);
+                }
+                catch (InvocationTargetException e)
+                {
+                    throw e.getCause();
+                }
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(LightweightConnectionPool.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    @Override
+    public int getActiveConnections()
+    {
+        return this.activeConnections.get();
+    }
+
+    @Override
+    public int getIdleConnections()
+    {
+        return (int) this.entries.stream()
+                                 .filter(entry -> entry.state.get() == STATE_IDLE)
+                                 .count();
+    }
+
+    @Override
+    public int getMaxConnections()
+    {
+        return this.maxConnections;
+    }
+
+    @Override
+    public void close() throws DBException
+    {
+        this.closed = true;
+        this.housekeeper.shutdownNow();
+
+        // Connections in use are discarded once they are returned
+        for (var entry : this.entries)
+        {
+            if (entry.state.compareAndSet(STATE_IDLE, STATE_REMOVED))
+                this.discard(entry);
+        }
+    }
+}
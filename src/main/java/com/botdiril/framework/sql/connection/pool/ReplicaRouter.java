@@ -0,0 +1,243 @@
+package com.botdiril.framework.sql.connection.pool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.botdiril.framework.sql.IDBResource;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.util.DBException;
+import com.botdiril.framework.sql.util.SqlLogger;
+
+/**
+ * Routes read-only checkouts to a set of replica pools.
+ *
+ * Replicas failing a health check or losing connectivity during a checkout are ejected until a later health check succeeds.
+ * Other checkout failures, such as a saturated pool timing out, only move the checkout on to the next replica.
+ */
+public class ReplicaRouter implements IDBResource
+{
+    private static final long HEALTH_CHECK_PERIOD_MILLIS = 5_000;
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    public enum Balancing
+    {
+        ROUND_ROBIN,
+        LEAST_IN_FLIGHT
+    }
+
+    public static final class Replica
+    {
+        private final String host;
+        private final String probeURL;
+        private final ConnectionPool pool;
+        private volatile boolean healthy;
+
+        private Replica(String host, String probeURL, ConnectionPool pool)
+        {
+            this.host = host;
+            this.probeURL = probeURL;
+            this.pool = pool;
+            this.healthy = true;
+        }
+
+        public String getHost()
+        {
+            return this.host;
+        }
+
+        public ConnectionPool getPool()
+        {
+            return this.pool;
+        }
+
+        public boolean isHealthy()
+        {
+            return this.healthy;
+        }
+    }
+
+    private final List<Replica> replicas;
+    private final Balancing balancing;
+    private final AtomicInteger nextReplica;
+    private final String username;
+    private final String password;
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaRouter(SqlConnectionConfig config) throws SQLException
+    {
+        this.balancing = config.replicaBalancing();
+        this.username = config.username();
+        this.password = config.password();
+        this.nextReplica = new AtomicInteger();
+        this.replicas = new ArrayList<>();
+
+        try
+        {
+            for (var host : config.replicaHosts())
+            {
+                var url = config.getJdbcURL(host, config.defaultSchema());
+                var probeURL = url + "&connectTimeout=" + TimeUnit.SECONDS.toMillis(HEALTH_CHECK_TIMEOUT_SECONDS);
+                this.replicas.add(new Replica(host, probeURL, config.connectionPool().create(url, config)));
+            }
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            this.replicas.forEach(replica -> replica.pool.close());
+            throw e;
+        }
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "botdiril-sql-replica-health");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.healthChecker.scheduleWithFixedDelay(this::checkHealth, HEALTH_CHECK_PERIOD_MILLIS, HEALTH_CHECK_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return a connection to a healthy replica, or null when none is available and the caller should fall back to the primary
+     */
+    public Connection getConnection()
+    {
+        var size = this.replicas.size();
+        var skipped = new ArrayList<Replica>(size);
+
+        for (int attempt = 0; attempt < size; attempt++)
+        {
+            var replica = this.select(skipped);
+
+            if (replica == null)
+                return null;
+
+            try
+            {
+                return replica.pool.getConnection();
+            }
+            catch (SQLException e)
+            {
+                if (isConnectivityFailure(e))
+                {
+                    SqlLogger.instance.warn("Replica `{}` failed a checkout, ejecting it.", replica.host, e);
+                    replica.healthy = false;
+                }
+                else
+                {
+                    SqlLogger.instance.debug("Replica `{}` could not provide a connection, trying the next one.", replica.host, e);
+                    skipped.add(replica);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return whether the exception or any of its causes reports a lost or refused connection, SQLState class {@code 08}
+     */
+    private static boolean isConnectivityFailure(SQLException e)
+    {
+        for (Throwable cause = e; cause != null; cause = cause.getCause())
+        {
+            if (cause instanceof SQLNonTransientConnectionException || cause instanceof SQLTransientConnectionException)
+                return true;
+
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null && sqlException.getSQLState().startsWith("08"))
+                return true;
+        }
+
+        return false;
+    }
+
+    private Replica select(List<Replica> skipped)
+    {
+        return switch (this.balancing) {
+            case ROUND_ROBIN -> {
+                var size = this.replicas.size();
+                var start = Math.floorMod(this.nextReplica.getAndIncrement(), size);
+
+                for (int i = 0; i < size; i++)
+                {
+                    var replica = this.replicas.get((start + i) % size);
+
+                    if (replica.healthy && !skipped.contains(replica))
+                        yield replica;
+                }
+
+                yield null;
+            }
+
+            case LEAST_IN_FLIGHT -> {
+                Replica best = null;
+                var bestInFlight = Integer.MAX_VALUE;
+
+                for (var replica : this.replicas)
+                {
+                    if (!replica.healthy || skipped.contains(replica))
+                        continue;
+
+                    var inFlight = replica.pool.getActiveConnections();
+
+                    if (inFlight < bestInFlight)
+                    {
+                        best = replica;
+                        bestInFlight = inFlight;
+                    }
+                }
+
+                yield best;
+            }
+        };
+    }
+
+    private void checkHealth()
+    {
+        for (var replica : this.replicas)
+        {
+            var healthy = this.probe(replica);
+
+            if (healthy != replica.healthy)
+            {
+                if (healthy)
+                    SqlLogger.instance.info("Replica `{}` is healthy again.", replica.host);
+                else
+                    SqlLogger.instance.warn("Replica `{}` failed a health check, ejecting it.", replica.host);
+            }
+
+            replica.healthy = healthy;
+        }
+    }
+
+    private boolean probe(Replica replica)
+    {
+        try (var c = DriverManager.getConnection(replica.probeURL, this.username, this.password))
+        {
+            return c.isValid(HEALTH_CHECK_TIMEOUT_SECONDS);
+        }
+        catch (SQLException e)
+        {
+            return false;
+        }
+    }
+
+    public List<Replica> getReplicas()
+    {
+        return List.copyOf(this.replicas);
+    }
+
+    @Override
+    public void close() throws DBException
+    {
+        this.healthChecker.shutdownNow();
+        this.replicas.forEach(replica -> replica.pool.close());
+    }
+}
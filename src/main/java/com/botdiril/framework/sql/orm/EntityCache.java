@@ -0,0 +1,389 @@
+package com.botdiril.framework.sql.orm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.botdiril.framework.sql.orm.table.Cached;
+
+/**
+ * Caches table rows by their primary key, see {@link Cached}.
+ *
+ * Rows evicted from the heap tier are serialized into the slots of an {@link OffHeapArena} when the off-heap tier
+ * is enabled, which keeps large caches out of the garbage collector's way. Rows with values of types the serializer
+ * does not know, or larger than {@link OffHeapArena#PAGE_SIZE}, are simply dropped instead.
+ */
+public final class EntityCache
+{
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_INT = 1;
+    private static final byte TAG_LONG = 2;
+    private static final byte TAG_DOUBLE = 3;
+    private static final byte TAG_FLOAT = 4;
+    private static final byte TAG_BOOLEAN = 5;
+    private static final byte TAG_STRING = 6;
+    private static final byte TAG_BYTES = 7;
+    private static final byte TAG_DECIMAL = 8;
+    private static final byte TAG_LOCAL_DATE_TIME = 9;
+
+    private record OffHeapSlot(long address, int length, int sizeClass)
+    {
+    }
+
+    private final int maxEntries;
+
+    private final LinkedHashMap<Object, Object[]> heap;
+    private final LinkedHashMap<Object, OffHeapSlot> offHeap;
+    private final OffHeapArena arena;
+    private long offHeapBytes;
+
+    /**
+     * Incremented by every invalidation, rows loaded before an invalidation are not cached after it.
+     */
+    private long generation;
+
+    private final LongAdder hits;
+    private final LongAdder offHeapHits;
+    private final LongAdder misses;
+
+    EntityCache(Cached settings)
+    {
+        if (settings.maxEntries() <= 0)
+            throw new IllegalArgumentException("The entity cache size must be positive.");
+
+        if (settings.offHeapBytes() < 0)
+            throw new IllegalArgumentException("The off-heap tier size cannot be negative.");
+
+        this.maxEntries = settings.maxEntries();
+
+        this.heap = new LinkedHashMap<>(16, 0.75f, true);
+        this.offHeap = new LinkedHashMap<>(16, 0.75f, true);
+        this.arena = settings.offHeapBytes() > 0 ? new OffHeapArena(settings.offHeapBytes()) : null;
+
+        this.hits = new LongAdder();
+        this.offHeapHits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Keys are compared by value, so integral keys are widened to avoid {@code 1} and {@code 1L} being different entries.
+     */
+    static Object normalizeKey(Object id)
+    {
+        if (id instanceof Integer || id instanceof Short || id instanceof Byte)
+            return ((Number) id).longValue();
+
+        return id;
+    }
+
+    /**
+     * @return the cached row, which must not be modified, or null
+     */
+    synchronized Object[] get(Object id)
+    {
+        var row = this.heap.get(id);
+
+        if (row != null)
+        {
+            this.hits.increment();
+            return row;
+        }
+
+        var slot = this.offHeap.remove(id);
+
+        if (slot != null)
+        {
+            row = deserialize(this.arena.read(slot.address(), slot.length()));
+            this.freeSlot(slot);
+
+            this.offHeapHits.increment();
+            this.putHeap(id, row);
+
+            return row;
+        }
+
+        this.misses.increment();
+        return null;
+    }
+
+    synchronized long getGeneration()
+    {
+        return this.generation;
+    }
+
+    synchronized void put(Object id, Object[] row, long generation)
+    {
+        if (generation != this.generation)
+            return;
+
+        this.putHeap(id, row);
+    }
+
+    private void putHeap(Object id, Object[] row)
+    {
+        this.heap.put(id, row);
+
+        var it = this.heap.entrySet().iterator();
+
+        while (this.heap.size() > this.maxEntries && it.hasNext())
+        {
+            var eldest = it.next();
+            it.remove();
+            this.demote(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    private void demote(Object id, Object[] row)
+    {
+        if (this.arena == null)
+            return;
+
+        var data = serialize(row);
+
+        if (data == null)
+            return;
+
+        var sizeClass = OffHeapArena.sizeClassOf(data.length);
+
+        if (sizeClass == -1)
+            return;
+
+        var address = this.arena.allocate(sizeClass);
+
+        // Only slots of the same size class make room, pages are never moved between classes
+        while (address == -1)
+        {
+            if (!this.arena.hasPages(sizeClass) || !this.evictOffHeap(sizeClass))
+                return;
+
+            address = this.arena.allocate(sizeClass);
+        }
+
+        this.arena.write(address, data);
+
+        var previous = this.offHeap.put(id, new OffHeapSlot(address, data.length, sizeClass));
+
+        if (previous != null)
+            this.freeSlot(previous);
+
+        this.offHeapBytes += OffHeapArena.slotSizeOf(sizeClass);
+    }
+
+    /**
+     * Evicts the least recently used off-heap row of the size class.
+     */
+    private boolean evictOffHeap(int sizeClass)
+    {
+        var it = this.offHeap.values().iterator();
+
+        while (it.hasNext())
+        {
+            var slot = it.next();
+
+            if (slot.sizeClass() != sizeClass)
+                continue;
+
+            it.remove();
+            this.freeSlot(slot);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void freeSlot(OffHeapSlot slot)
+    {
+        this.arena.free(slot.address(), slot.sizeClass());
+        this.offHeapBytes -= OffHeapArena.slotSizeOf(slot.sizeClass());
+    }
+
+    synchronized void invalidate(Object id)
+    {
+        this.generation++;
+        this.heap.remove(id);
+
+        var slot = this.offHeap.remove(id);
+
+        if (slot != null)
+            this.freeSlot(slot);
+    }
+
+    public synchronized void invalidateAll()
+    {
+        this.generation++;
+        this.heap.clear();
+        this.offHeap.clear();
+        this.offHeapBytes = 0;
+
+        if (this.arena != null)
+            this.arena.reset();
+    }
+
+    public synchronized int getHeapSize()
+    {
+        return this.heap.size();
+    }
+
+    public synchronized int getOffHeapSize()
+    {
+        return this.offHeap.size();
+    }
+
+    /**
+     * @return the size of the slots taken by off-heap rows
+     */
+    public synchronized long getOffHeapBytes()
+    {
+        return this.offHeapBytes;
+    }
+
+    /**
+     * @return the direct memory reserved by the off-heap tier, which is kept until the cache is discarded
+     */
+    public synchronized long getOffHeapReservedBytes()
+    {
+        return this.arena != null ? this.arena.getReservedBytes() : 0;
+    }
+
+    public long getHits()
+    {
+        return this.hits.sum();
+    }
+
+    public long getOffHeapHits()
+    {
+        return this.offHeapHits.sum();
+    }
+
+    public long getMisses()
+    {
+        return this.misses.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "entity-cache { hits: %d, off-heap hits: %d, misses: %d }".formatted(this.getHits(), this.getOffHeapHits(), this.getMisses());
+    }
+
+    /**
+     * @return the serialized row, or null when it contains a value of an unsupported type
+     */
+    private static byte[] serialize(Object[] row)
+    {
+        try
+        {
+            var bos = new ByteArrayOutputStream(64);
+            var out = new DataOutputStream(bos);
+
+            out.writeShort(row.length);
+
+            for (var value : row)
+            {
+                if (value == null)
+                {
+                    out.writeByte(TAG_NULL);
+                }
+                else if (value instanceof Integer i)
+                {
+                    out.writeByte(TAG_INT);
+                    out.writeInt(i);
+                }
+                else if (value instanceof Long l)
+                {
+                    out.writeByte(TAG_LONG);
+                    out.writeLong(l);
+                }
+                else if (value instanceof Double d)
+                {
+                    out.writeByte(TAG_DOUBLE);
+                    out.writeDouble(d);
+                }
+                else if (value instanceof Float f)
+                {
+                    out.writeByte(TAG_FLOAT);
+                    out.writeFloat(f);
+                }
+                else if (value instanceof Boolean b)
+                {
+                    out.writeByte(TAG_BOOLEAN);
+                    out.writeBoolean(b);
+                }
+                else if (value instanceof String str)
+                {
+                    var bytes = str.getBytes(StandardCharsets.UTF_8);
+                    out.writeByte(TAG_STRING);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                else if (value instanceof byte[] bytes)
+                {
+                    out.writeByte(TAG_BYTES);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                else if (value instanceof BigDecimal decimal)
+                {
+                    var bytes = decimal.toString().getBytes(StandardCharsets.US_ASCII);
+                    out.writeByte(TAG_DECIMAL);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                else if (value instanceof LocalDateTime time)
+                {
+                    out.writeByte(TAG_LOCAL_DATE_TIME);
+                    out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+                    out.writeInt(time.getNano());
+                }
+                else
+                {
+                    return null;
+                }
+            }
+
+            return bos.toByteArray();
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+    }
+
+    private static Object[] deserialize(ByteBuffer buf)
+    {
+        var row = new Object[buf.getShort()];
+
+        for (int i = 0; i < row.length; i++)
+        {
+            row[i] = switch (buf.get()) {
+                case TAG_NULL -> null;
+                case TAG_INT -> buf.getInt();
+                case TAG_LONG -> buf.getLong();
+                case TAG_DOUBLE -> buf.getDouble();
+                case TAG_FLOAT -> buf.getFloat();
+                case TAG_BOOLEAN -> buf.get() != 0;
+                case TAG_STRING -> new String(readBytes(buf), StandardCharsets.UTF_8);
+                case TAG_BYTES -> readBytes(buf);
+                case TAG_DECIMAL -> new BigDecimal(new String(readBytes(buf), StandardCharsets.US_ASCII));
+                case TAG_LOCAL_DATE_TIME -> LocalDateTime.ofEpochSecond(buf.getLong(), buf.getInt(), ZoneOffset.UTC);
+                default -> throw new IllegalStateException("Corrupted off-heap entry.");
+            };
+        }
+
+        return row;
+    }
+
+    private static byte[] readBytes(ByteBuffer buf)
+    {
+        var bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,27 @@
+package com.botdiril.framework.sql.orm;
+
+/**
+ * How an upsert merges a column of an existing row with the inserted value.
+ */
+public enum MergePolicy
+{
+    /**
+     * Replaces the existing value.
+     */
+    OVERWRITE,
+
+    /**
+     * Adds the inserted value to the existing one, for counters and balances.
+     */
+    ADD,
+
+    /**
+     * Keeps the greater of both values.
+     */
+    MAX,
+
+    /**
+     * Keeps the existing value, the inserted value is only used for new rows.
+     */
+    KEEP
+}
@@ -67,11 +67,14 @@ public class Model
         return this.manager;
     }
 
-    void build(WriteDBConnection db)
+    void build(WriteDBConnection db, SchemaSnapshot snapshot)
     {
-        db.createSchema(this.name);
+        this.tables.forEach((name, table) -> table.build(db, snapshot));
+    }
 
-        this.tables.forEach((name, table) -> table.build(db));
+    void buildForeignKeys(WriteDBConnection db, SchemaSnapshot snapshot)
+    {
+        this.tables.forEach((name, table) -> table.buildForeignKeys(db, snapshot));
     }
 
     @Override
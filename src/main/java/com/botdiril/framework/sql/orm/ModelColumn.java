@@ -8,14 +8,12 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.botdiril.framework.sql.SqlEngine;
-import com.botdiril.framework.sql.connection.WriteDBConnection;
 import com.botdiril.framework.sql.orm.column.Column;
 import com.botdiril.framework.sql.orm.column.ColumnInfo;
 import com.botdiril.framework.sql.orm.column.EnumColumnFlag;
 import com.botdiril.framework.sql.orm.column.ForeignKey;
 import com.botdiril.framework.sql.orm.column.defaultvalue.DefaultValueSupplier;
 import com.botdiril.framework.sql.orm.column.defaultvalue.ExpressionDefaultValueSupplier;
-import com.botdiril.framework.sql.util.SqlLogger;
 
 public class ModelColumn<T>
 {
@@ -146,80 +144,4 @@ public class ModelColumn<T>
 
         return cInfo.toString();
     }
-
-    public void build(WriteDBConnection db)
-    {
-        var schema = this.table.getSchema();
-        var schemaName = schema.getName();
-        var tableName = this.table.getName();
-
-        var hasRow = db.hasRow("""
-            SELECT *
-            FROM `information_schema`.`COLUMNS`
-            WHERE
-                `TABLE_SCHEMA` = ?
-                    AND
-                `TABLE_NAME` = ?
-                    AND
-                `COLUMN_NAME` = ?
-            """, schemaName, tableName, this.info.name());
-
-        if (hasRow)
-            return;
-
-        SqlLogger.instance.info("Column `{}` in table `{}` missing, recreating.", schemaName, tableName);
-
-        var createInfo = this.getCreateInfo();
-
-        db.simpleExecute("ALTER TABLE `%s`.`%s` ADD COLUMN %s".formatted(schemaName, tableName, createInfo));
-    }
-
-    public void buildForeignKeys(WriteDBConnection db)
-    {
-        var schema = this.table.getSchema();
-        var schemaName = schema.getName();
-        var tableName = this.table.getName();
-        var colName = this.info.name();
-
-        for (var fk : this.foreignKeys)
-        {
-            var refCol = fk.column();
-            var refTbl = refCol.getTable();
-            var refSchema = refTbl.getSchema();
-
-            var refSchemaName = refSchema.getName();
-            var refColName = refCol.getName();
-            var refTblName = refTbl.getName();
-
-            var hasRow = db.hasRow("""
-                SELECT *
-                FROM `information_schema`.`KEY_COLUMN_USAGE`
-                WHERE
-                    `TABLE_SCHEMA` = ?
-                        AND
-                    `TABLE_NAME` = ?
-                        AND
-                    `COLUMN_NAME` = ?
-                        AND
-                    `REFERENCED_TABLE_SCHEMA` = ?
-                        AND
-                    `REFERENCED_TABLE_NAME` = ?
-                        AND
-                    `REFERENCED_COLUMN_NAME` = ?
-                """, schemaName, tableName, colName, refSchemaName, refTblName, refColName);
-
-            if (hasRow)
-                continue;
-
-            SqlLogger.instance.info("Missing foreign key `{}`.`{}`.`{}` -> `{}`.`{}`.`{}`, recreating.",
-                schemaName, tableName, colName, refSchemaName, refTblName, refColName);
-
-            var delAct = fk.parentDeleteAction();
-
-            db.simpleExecute("""
-                ALTER TABLE `%s`.`%s`
-                ADD FOREIGN KEY (%s) REFERENCES `%s`.`%s`(%s) %s
-                """.formatted(schemaName, tableName, colName, refSchemaName, refTblName, refColName, delAct.getCreateInfo()));
-        }
-    }
 }
@@ -22,6 +22,7 @@ import com.botdiril.framework.sql.orm.column.defaultvalue.DefaultValueSupplier;
 import com.botdiril.framework.sql.orm.column.defaultvalue.ExpressionDefaultValueSupplier;
 import com.botdiril.framework.sql.orm.schema.Schema;
 import com.botdiril.framework.sql.orm.table.Table;
+import com.botdiril.framework.sql.util.DBException;
 import com.botdiril.framework.sql.util.SqlLogger;
 
 public class ModelManager implements AutoCloseable
@@ -32,6 +33,9 @@ public class ModelManager implements AutoCloseable
         INITIALIZED
     }
 
+    private static final String MIGRATION_LOCK_PREFIX = "botdiril_migrate_";
+    private static final int MIGRATION_LOCK_TIMEOUT_SECONDS = 300;
+
     private static final Map<Class<?>, Function<int[], ?>> COLUMN_BOUNDS_PROVIDERS = new HashMap<>();
 
     static
@@ -79,6 +83,8 @@ public class ModelManager implements AutoCloseable
     private final SqlConnectionConfig config;
     private SqlConnectionManager connectionManager;
 
+    private volatile ServerSettings serverSettings;
+
     private final Map<String, Model> models;
 
     private record KeyReferenceList<T>(ModelColumn<T> column, List<ForeignKey> keys)
@@ -207,6 +213,10 @@ public class ModelManager implements AutoCloseable
         var boundsRaw = columnAnnotation.bounds();
         // Pass-through if no provider found
         var bounds = boundsProvider != null ? boundsProvider.apply(boundsRaw) : boundsRaw;
+
+        if (columnDataType == EnumSet.class)
+            bounds = columnAnnotation.elementType();
+
         var columnInfo = ColumnInfo.of(columnName, columnDataType, bounds);
 
         var foundPrimaryKey = false;
@@ -326,36 +336,124 @@ public class ModelManager implements AutoCloseable
             }
         }
 
-        var jdbcURL = "jdbc:mysql://" + this.config.host()
-                + "/?useUnicode=true"
-                + "&autoReconnect=true"
-                + "&useJDBCCompliantTimezoneShift=true"
-                + "&useLegacyDatetimeCode=false"
-                + "&serverTimezone=UTC";
+        var jdbcURL = this.config.getJdbcURL("");
 
+        // The pool cannot be used yet, its URL names the default schema, which might not exist
         try (var c = DriverManager.getConnection(jdbcURL, this.config.username(), this.config.password()))
         {
             try (var db = WriteDBConnection.fromExisting(c))
             {
-                db.createSchema(this.config.defaultSchema());
+                var defaultSchema = this.config.defaultSchema();
 
-                this.models.forEach((name, model) -> model.build(db));
+                db.createSchema(defaultSchema);
 
-                this.models.values()
-                           .stream()
-                           .map(Model::getTables)
-                           .flatMap(Collection::stream)
-                           .map(ModelTable::getColumns)
-                           .flatMap(Collection::stream)
-                           .forEach(column -> column.buildForeignKeys(db));
+                var fingerprints = new HashMap<String, String>();
+                this.models.forEach((name, model) -> fingerprints.put(name, SchemaFingerprint.compute(model)));
 
-                db.commit();
+                if (!fingerprints.equals(this.getStoredFingerprints(db, fingerprints)))
+                {
+                    this.acquireMigrationLock(db);
+
+                    try
+                    {
+                        // Another node may have migrated the schema while this one was waiting
+                        var stored = this.getStoredFingerprints(db, fingerprints);
+
+                        var changedModels = this.models.values()
+                                                       .stream()
+                                                       .filter(model -> !fingerprints.get(model.getName()).equals(stored.get(model.getName())))
+                                                       .toList();
+
+                        if (!changedModels.isEmpty())
+                        {
+                            this.migrate(db, changedModels);
+
+                            changedModels.forEach(model -> SchemaFingerprint.store(db, defaultSchema, model.getName(), fingerprints.get(model.getName())));
+                        }
+
+                        db.commit();
+                    }
+                    finally
+                    {
+                        this.releaseMigrationLock(db);
+                    }
+                }
+                else
+                {
+                    SqlLogger.instance.info("Schema fingerprints match, skipping the schema verification.");
+                }
             }
         }
 
         this.state = Phase.INITIALIZED;
 
         this.connectionManager = new SqlConnectionManager(this.config);
+
+        var queryCache = this.connectionManager.getQueryCache();
+
+        if (queryCache != null)
+        {
+            var tableNames = this.models.values()
+                                        .stream()
+                                        .map(Model::getTables)
+                                        .flatMap(Collection::stream)
+                                        .map(ModelTable::getName)
+                                        .toList();
+
+            queryCache.addKnownTables(tableNames);
+        }
+    }
+
+    /**
+     * @return the stored fingerprints of the registered models only
+     */
+    private Map<String, String> getStoredFingerprints(WriteDBConnection db, Map<String, String> fingerprints)
+    {
+        var stored = new HashMap<>(SchemaFingerprint.load(db, this.config.defaultSchema()));
+        stored.keySet().retainAll(fingerprints.keySet());
+        return stored;
+    }
+
+    /**
+     * Verifies the schemas of the models against the database, with one introspection query per schema
+     * and one statement per table that needs changes.
+     */
+    private void migrate(WriteDBConnection db, List<Model> models)
+    {
+        var snapshots = new HashMap<String, SchemaSnapshot>();
+
+        models.forEach(model -> {
+            db.createSchema(model.getName());
+            snapshots.put(model.getName(), SchemaSnapshot.load(db, model.getName()));
+        });
+
+        models.forEach(model -> model.build(db, snapshots.get(model.getName())));
+        models.forEach(model -> model.buildForeignKeys(db, snapshots.get(model.getName())));
+    }
+
+    private String getMigrationLockName()
+    {
+        var name = MIGRATION_LOCK_PREFIX + this.config.defaultSchema();
+
+        // MySQL rejects longer lock names, a shared prefix only serializes unrelated migrations
+        return name.length() > 64 ? name.substring(0, 64) : name;
+    }
+
+    private void acquireMigrationLock(WriteDBConnection db)
+    {
+        var lockName = this.getMigrationLockName();
+
+        SqlLogger.instance.info("Schema fingerprints differ, waiting for the migration lock `{}`.", lockName);
+
+        var acquired = db.query("SELECT GET_LOCK(?, ?)", rs -> rs.next() && rs.getInt(1) == 1, lockName, MIGRATION_LOCK_TIMEOUT_SECONDS);
+
+        if (!acquired)
+            throw new DBException("Could not acquire the schema migration lock `%s` within %d seconds.".formatted(lockName, MIGRATION_LOCK_TIMEOUT_SECONDS));
+    }
+
+    private void releaseMigrationLock(WriteDBConnection db)
+    {
+        db.query("SELECT RELEASE_LOCK(?)", rs -> null, this.getMigrationLockName());
     }
 
     public SqlConnectionManager getConnectionManager()
@@ -366,6 +464,22 @@ public class ModelManager implements AutoCloseable
         return this.connectionManager;
     }
 
+    /**
+     * Fetches the server settings on first use, concurrent first uses may fetch them more than once.
+     */
+    ServerSettings getServerSettings(WriteDBConnection db)
+    {
+        var settings = this.serverSettings;
+
+        if (settings == null)
+        {
+            settings = ServerSettings.fetch(db);
+            this.serverSettings = settings;
+        }
+
+        return settings;
+    }
+
     public UUID getUUID()
     {
         return this.uuid;
@@ -1,15 +1,49 @@
 package com.botdiril.framework.sql.orm;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.ReadDBConnection;
 import com.botdiril.framework.sql.connection.WriteDBConnection;
+import com.botdiril.framework.sql.orm.table.Cached;
 import com.botdiril.framework.sql.orm.table.Table;
+import com.botdiril.framework.sql.util.ParamNull;
+import com.botdiril.framework.sql.util.DBException;
 import com.botdiril.framework.sql.util.SqlLogger;
 
 public class ModelTable<T>
 {
+    private record RecordComponentAccessor(String name, MethodHandle accessor)
+    {
+    }
+
+    private static final ClassValue<RecordComponentAccessor[]> RECORD_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected RecordComponentAccessor[] computeValue(Class<?> type)
+        {
+            var lookup = MethodHandles.publicLookup();
+
+            return Arrays.stream(type.getRecordComponents())
+                         .map(component -> {
+                             try
+                             {
+                                 var accessor = lookup.unreflect(component.getAccessor())
+                                                      .asType(MethodType.methodType(Object.class, Object.class));
+                                 return new RecordComponentAccessor(component.getName(), accessor);
+                             }
+                             catch (IllegalAccessException e)
+                             {
+                                 throw new DBException(e);
+                             }
+                         })
+                         .toArray(RecordComponentAccessor[]::new);
+        }
+    };
+
     private final String name;
     private final T table;
     private final Table tableMeta;
@@ -19,6 +53,8 @@ public class ModelTable<T>
 
     private final Map<String, ModelColumn<?>> columns;
 
+    private final EntityCache entityCache;
+
     ModelTable(String name, T table, Table tableMeta, Class<T> tableClass, Model model)
     {
         if (!SqlEngine.isValidObjectName(name))
@@ -30,6 +66,9 @@ public class ModelTable<T>
         this.tableClass = tableClass;
         this.model = model;
         this.columns = new LinkedHashMap<>();
+
+        var cached = tableClass.getAnnotation(Cached.class);
+        this.entityCache = cached != null ? new EntityCache(cached) : null;
     }
 
     void addColumn(ModelColumn<?> column)
@@ -80,32 +119,372 @@ public class ModelTable<T>
         return this.model;
     }
 
-    void build(WriteDBConnection db)
+    /**
+     * @return the primary key entity cache, or null when the table is not {@link Cached}
+     */
+    public EntityCache getEntityCache()
     {
-        var schemaName = this.model.getName();
+        return this.entityCache;
+    }
+
+    /**
+     * Loads a row by its primary key, served from the entity cache when the table is {@link Cached}.
+     *
+     * The cache is only kept coherent with writes made through this table,
+     * rows changed by hand-written statements must be invalidated explicitly.
+     * Transactions bypass the cache, so they see their own writes and never publish uncommitted rows.
+     * Rows read from a replica are served from the cache but never stored in it.
+     *
+     * @return the values in the order of {@link #getColumns()}
+     */
+    public Optional<Object[]> findById(ReadDBConnection db, Object id)
+    {
+        var key = EntityCache.normalizeKey(id);
+        var cache = db.isAutoCommiting() ? this.entityCache : null;
+
+        if (cache != null)
+        {
+            var cachedRow = cache.get(key);
+
+            if (cachedRow != null)
+                return Optional.of(cachedRow.clone());
+        }
+
+        var generation = cache != null ? cache.getGeneration() : 0L;
+        var columnList = List.copyOf(this.columns.values());
+
+        var columnNames = columnList.stream()
+                                    .map(column -> "`" + column.getName() + "`")
+                                    .collect(Collectors.joining(", "));
+
+        var statement = "SELECT %s FROM `%s`.`%s` WHERE `%s` = ?".formatted(columnNames, this.model.getName(), this.name, this.getRequiredPrimaryKey().getName());
+
+        var row = db.query(statement, rs -> {
+            if (!rs.next())
+                return null;
+
+            var values = new Object[columnList.size()];
+
+            for (int i = 0; i < values.length; i++)
+            {
+                var value = columnList.get(i).getInfo().getIndexedExtractor().extract(rs, i + 1);
+                values[i] = rs.wasNull() ? null : value;
+            }
+
+            return values;
+        }, id);
+
+        if (row == null)
+            return Optional.empty();
+
+        // A lagging replica may return the row as it was before the last invalidation
+        if (cache != null && !db.isReplica())
+            cache.put(key, row.clone(), generation);
+
+        return Optional.of(row);
+    }
+
+    /**
+     * Updates the given columns of a row by its primary key, invalidating its cached entity.
+     *
+     * @param values null values are written as SQL {@code NULL}
+     * @return the number of updated rows
+     */
+    public int updateById(WriteDBConnection db, Object id, Map<ModelColumn<?>, Object> values)
+    {
+        if (values.isEmpty())
+            return 0;
+
+        var assignments = new ArrayList<String>(values.size());
+        var params = new ArrayList<>(values.size() + 1);
+
+        values.forEach((column, value) -> {
+            if (column.getTable() != this)
+                throw new IllegalArgumentException("Column `%s` does not belong to `%s`.".formatted(column.getName(), this.name));
+
+            assignments.add("`%s` = ?".formatted(column.getName()));
+            params.add(value != null ? value : new ParamNull(column.getInfo().type()));
+        });
+
+        params.add(id);
+
+        var statement = "UPDATE `%s`.`%s` SET %s WHERE `%s` = ?".formatted(this.model.getName(), this.name, String.join(", ", assignments), this.getRequiredPrimaryKey().getName());
+        var updated = db.simpleUpdate(statement, params.toArray());
+
+        this.invalidateEntity(db, id);
+
+        return updated;
+    }
+
+    /**
+     * Deletes a row by its primary key, invalidating its cached entity.
+     *
+     * @return the number of deleted rows
+     */
+    public int deleteById(WriteDBConnection db, Object id)
+    {
+        var statement = "DELETE FROM `%s`.`%s` WHERE `%s` = ?".formatted(this.model.getName(), this.name, this.getRequiredPrimaryKey().getName());
+        var deleted = db.simpleUpdate(statement, id);
+
+        this.invalidateEntity(db, id);
+
+        return deleted;
+    }
+
+    /**
+     * Invalidates right away and again once the transaction ends, in case a concurrent reader
+     * cached the previously committed row in between.
+     */
+    private void invalidateEntity(WriteDBConnection db, Object id)
+    {
+        if (this.entityCache == null)
+            return;
+
+        var key = EntityCache.normalizeKey(id);
+
+        this.entityCache.invalidate(key);
+        db.afterCompletion(() -> this.entityCache.invalidate(key));
+    }
+
+    private void invalidateEntities(WriteDBConnection db, List<Object[]> rows)
+    {
+        if (this.entityCache == null)
+            return;
+
+        var keyIdx = this.getPrimaryKeyColumn()
+                         .map(List.copyOf(this.columns.values())::indexOf)
+                         .orElse(-1);
+
+        if (keyIdx == -1 || rows.stream().anyMatch(row -> row[keyIdx] == null))
+        {
+            // Rows matched by a unique column can't be mapped to their cached entities
+            this.entityCache.invalidateAll();
+            db.afterCompletion(this.entityCache::invalidateAll);
+            return;
+        }
+
+        for (var row : rows)
+            this.invalidateEntity(db, row[keyIdx]);
+    }
+
+    private ModelColumn<?> getRequiredPrimaryKey()
+    {
+        return this.getPrimaryKeyColumn()
+                   .orElseThrow(() -> new IllegalStateException("Table `%s` has no primary key.".formatted(this.name)));
+    }
+
+    /**
+     * Inserts the rows using multi-row statements, which are split by row count and by {@code max_allowed_packet}.
+     *
+     * Auto-increment and defaulted columns are left out of the statement when no row has a value for them.
+     *
+     * @param rows the values in the order of {@link #getColumns()}, null for absent values
+     * @return the number of inserted rows
+     */
+    public int insertAll(WriteDBConnection db, List<Object[]> rows)
+    {
+        if (rows.isEmpty())
+            return 0;
+
+        return MultiRowInsert.forRows(this, rows).execute(db, rows);
+    }
+
+    /**
+     * Inserts the rows like {@link #insertAll(WriteDBConnection, List)} and returns their auto-increment keys in input order,
+     * so parent and child rows can be inserted without selecting the keys back.
+     *
+     * Multi-row statements are only used when InnoDB assigns consecutive keys to them, otherwise the rows are inserted one by one.
+     */
+    public long[] insertAllReturningKeys(WriteDBConnection db, List<Object[]> rows)
+    {
+        if (rows.isEmpty())
+            return new long[0];
+
+        return MultiRowInsert.forRows(this, rows).executeReturningKeys(db, rows);
+    }
+
+    public long[] insertAllRecordsReturningKeys(WriteDBConnection db, List<? extends Record> records)
+    {
+        return this.insertAllReturningKeys(db, this.toRows(records));
+    }
+
+    /**
+     * Inserts records like {@link #insertAll(WriteDBConnection, List)}, record components are matched to columns by name,
+     * for example the records generated by {@link com.botdiril.framework.sql.orm.asm.TableInfoGenerator}.
+     */
+    public int insertAllRecords(WriteDBConnection db, List<? extends Record> records)
+    {
+        return this.insertAll(db, this.toRows(records));
+    }
+
+    /**
+     * Inserts the row, or merges it into the existing row with the same primary key or unique value,
+     * see {@link #upsertAll(WriteDBConnection, List, Map)}.
+     */
+    public int upsert(WriteDBConnection db, Object[] row, Map<ModelColumn<?>, MergePolicy> mergePolicies)
+    {
+        return this.upsertAll(db, List.<Object[]>of(row), mergePolicies);
+    }
+
+    /**
+     * Inserts the rows with {@code INSERT ... ON DUPLICATE KEY UPDATE}, replacing a read-modify-write cycle with a single statement.
+     *
+     * Primary key and unique columns identify the existing row and are never updated,
+     * other columns are merged according to their policy, {@link MergePolicy#OVERWRITE} by default.
+     * Auto-increment and defaulted columns without a value in any row are left untouched.
+     *
+     * @param rows the values in the order of {@link #getColumns()}, null for absent values
+     * @return the affected row count as reported by MySQL, one for each inserted row and two for each changed row
+     */
+    public int upsertAll(WriteDBConnection db, List<Object[]> rows, Map<ModelColumn<?>, MergePolicy> mergePolicies)
+    {
+        if (rows.isEmpty())
+            return 0;
+
+        var affected = MultiRowInsert.forRows(this, rows)
+                                     .onDuplicateKeyUpdate(mergePolicies)
+                                     .execute(db, rows);
 
-        db.simpleExecute("USE " + schemaName);
+        this.invalidateEntities(db, rows);
 
-        if (db.tableExists(this.name))
+        return affected;
+    }
+
+    public int upsertAllRecords(WriteDBConnection db, List<? extends Record> records, Map<ModelColumn<?>, MergePolicy> mergePolicies)
+    {
+        return this.upsertAll(db, this.toRows(records), mergePolicies);
+    }
+
+    List<Object[]> toRows(List<? extends Record> records)
+    {
+        var rows = new ArrayList<Object[]>(records.size());
+
+        Class<?> recordType = null;
+        RecordComponentAccessor[] accessors = null;
+        int[] columnIndices = null;
+
+        for (var record : records)
         {
-            for (var col : this.columns.values())
-                col.build(db);
+            if (record.getClass() != recordType)
+            {
+                recordType = record.getClass();
+                accessors = RECORD_ACCESSORS.get(recordType);
+                columnIndices = this.getColumnIndices(accessors);
+            }
+
+            var row = new Object[this.columns.size()];
+
+            try
+            {
+                for (int i = 0; i < accessors.length; i++)
+                    row[columnIndices[i]] = accessors[i].accessor().invokeExact((Object) record);
+            }
+            catch (Throwable e)
+            {
+                throw new DBException(e);
+            }
+
+            rows.add(row);
+        }
+
+        return rows;
+    }
+
+    private int[] getColumnIndices(RecordComponentAccessor[] accessors)
+    {
+        var names = new ArrayList<>(this.columns.keySet());
+        var indices = new int[accessors.length];
+
+        for (int i = 0; i < accessors.length; i++)
+        {
+            var idx = names.indexOf(accessors[i].name());
+
+            if (idx == -1)
+                throw new IllegalArgumentException("Record component `%s` does not match any column of `%s`.".formatted(accessors[i].name(), this.name));
+
+            indices[i] = idx;
+        }
+
+        return indices;
+    }
+
+    /**
+     * Creates the table, or adds its missing columns with a single {@code ALTER TABLE}.
+     */
+    void build(WriteDBConnection db, SchemaSnapshot snapshot)
+    {
+        var schemaName = this.model.getName();
+
+        if (!snapshot.hasTable(this.name))
+        {
+            SqlLogger.instance.info("Creating table `{}`.`{}`.", schemaName, this.name);
+
+            var colCreateInfo = this.columns.values()
+                                            .stream()
+                                            .map(ModelColumn::getCreateInfo)
+                                            .collect(Collectors.joining(", \n"));
+
+            db.simpleExecute("""
+            CREATE TABLE `%s`.`%s` (
+            %s
+            )
+            """.formatted(schemaName, this.name, colCreateInfo.indent(2)));
 
             return;
         }
 
-        SqlLogger.instance.info("Creating table `{}`.`{}`.", schemaName, this.name);
+        var missingColumns = this.columns.values()
+                                         .stream()
+                                         .filter(column -> !snapshot.hasColumn(this.name, column.getName()))
+                                         .toList();
+
+        if (missingColumns.isEmpty())
+            return;
+
+        missingColumns.forEach(column -> SqlLogger.instance.info("Column `{}` in table `{}`.`{}` missing, recreating.", column.getName(), schemaName, this.name));
+
+        var alterations = missingColumns.stream()
+                                        .map(column -> "ADD COLUMN " + column.getCreateInfo())
+                                        .collect(Collectors.joining(",\n"));
+
+        db.simpleExecute("ALTER TABLE `%s`.`%s`\n%s".formatted(schemaName, this.name, alterations));
+    }
+
+    /**
+     * Adds the missing foreign keys of all columns with a single {@code ALTER TABLE}, once all tables exist.
+     */
+    void buildForeignKeys(WriteDBConnection db, SchemaSnapshot snapshot)
+    {
+        var schemaName = this.model.getName();
+        var alterations = new ArrayList<String>();
+
+        for (var column : this.columns.values())
+        {
+            var colName = column.getName();
+
+            for (var fk : column.getReferredTables())
+            {
+                var refCol = fk.column();
+                var refTbl = refCol.getTable();
+
+                var refSchemaName = refTbl.getSchema().getName();
+                var refTblName = refTbl.getName();
+                var refColName = refCol.getName();
+
+                if (snapshot.hasForeignKey(this.name, colName, refSchemaName, refTblName, refColName))
+                    continue;
 
-        var colCreateInfo = this.columns.values()
-                                        .stream()
-                                        .map(ModelColumn::getCreateInfo)
-                                        .collect(Collectors.joining(", \n"));
+                SqlLogger.instance.info("Missing foreign key `{}`.`{}`.`{}` -> `{}`.`{}`.`{}`, recreating.",
+                    schemaName, this.name, colName, refSchemaName, refTblName, refColName);
+
+                alterations.add("ADD FOREIGN KEY (`%s`) REFERENCES `%s`.`%s`(`%s`) %s".formatted(colName, refSchemaName, refTblName, refColName, fk.parentDeleteAction().getCreateInfo()));
+            }
+        }
+
+        if (alterations.isEmpty())
+            return;
 
-        db.simpleExecute("""
-        CREATE TABLE %s (
-        %s
-        )
-        """.formatted(this.name, colCreateInfo.indent(2)));
+        db.simpleExecute("ALTER TABLE `%s`.`%s`\n%s".formatted(schemaName, this.name, String.join(",\n", alterations)));
     }
 
     @Override
@@ -0,0 +1,322 @@
+package com.botdiril.framework.sql.orm;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.botdiril.framework.sql.connection.WriteDBConnection;
+import com.botdiril.framework.sql.util.ParamNull;
+
+/**
+ * Builds and executes multi-row {@code INSERT} statements for a table.
+ *
+ * Rows are split into statements by row count, by the number of placeholders
+ * and by their estimated size against {@code max_allowed_packet}.
+ */
+final class MultiRowInsert
+{
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    /**
+     * The placeholder limit of the MySQL protocol.
+     */
+    private static final int MAX_PARAMS_PER_STATEMENT = 65_535;
+
+    /**
+     * Leaves room for the statement text and the estimation error of variable length values.
+     */
+    private static final double PACKET_USAGE = 0.75;
+
+    private final ModelTable<?> table;
+    private final List<ModelColumn<?>> columns;
+    private final String statementPrefix;
+    private final String statementSuffix;
+
+    private MultiRowInsert(ModelTable<?> table, List<ModelColumn<?>> columns, String statementSuffix)
+    {
+        this.table = table;
+        this.columns = columns;
+        this.statementSuffix = statementSuffix;
+
+        var sb = new StringBuilder("INSERT INTO `%s`.`%s` (".formatted(table.getSchema().getName(), table.getName()));
+
+        for (int i = 0; i < columns.size(); i++)
+        {
+            if (i > 0)
+                sb.append(", ");
+
+            sb.append('`').append(columns.get(i).getName()).append('`');
+        }
+
+        sb.append(") VALUES ");
+
+        this.statementPrefix = sb.toString();
+    }
+
+    /**
+     * Columns that are auto-increment or have a default value are left out when no row has a value for them.
+     *
+     * @param rows the values in the order of {@link ModelTable#getColumns()}, null for absent values
+     */
+    static MultiRowInsert forRows(ModelTable<?> table, List<Object[]> rows)
+    {
+        var tableColumns = List.copyOf(table.getColumns());
+        var columns = new ArrayList<ModelColumn<?>>(tableColumns.size());
+
+        for (var row : rows)
+        {
+            if (row.length != tableColumns.size())
+                throw new IllegalArgumentException("Expected %d values per row for table `%s`, got %d.".formatted(tableColumns.size(), table.getName(), row.length));
+        }
+
+        for (int i = 0; i < tableColumns.size(); i++)
+        {
+            var column = tableColumns.get(i);
+
+            if (hasDefault(column) && isAbsent(rows, i))
+                continue;
+
+            columns.add(column);
+        }
+
+        if (columns.isEmpty())
+            throw new IllegalArgumentException("Cannot insert rows without any values into `%s`.".formatted(table.getName()));
+
+        return new MultiRowInsert(table, columns, "");
+    }
+
+    /**
+     * Turns the statement into an upsert, key columns are never updated and other columns are overwritten unless specified otherwise.
+     */
+    MultiRowInsert onDuplicateKeyUpdate(Map<ModelColumn<?>, MergePolicy> mergePolicies)
+    {
+        var assignments = new ArrayList<String>();
+        ModelColumn<?> keyColumn = null;
+
+        for (var column : this.columns)
+        {
+            var name = column.getName();
+
+            if (column.isPrimaryKey() || column.isUnique())
+            {
+                if (keyColumn == null)
+                    keyColumn = column;
+
+                continue;
+            }
+
+            switch (mergePolicies.getOrDefault(column, MergePolicy.OVERWRITE))
+            {
+                case OVERWRITE -> assignments.add("`%s` = VALUES(`%s`)".formatted(name, name));
+                case ADD -> assignments.add("`%s` = `%s` + VALUES(`%s`)".formatted(name, name, name));
+                case MAX -> assignments.add("`%s` = GREATEST(`%s`, VALUES(`%s`))".formatted(name, name, name));
+                case KEEP -> { }
+            }
+        }
+
+        if (keyColumn == null)
+            throw new IllegalArgumentException("An upsert into `%s` requires a value for a primary key or a unique column.".formatted(this.table.getName()));
+
+        // A no-op assignment, so duplicates are ignored instead of failing
+        if (assignments.isEmpty())
+            assignments.add("`%s` = `%s`".formatted(keyColumn.getName(), keyColumn.getName()));
+
+        return new MultiRowInsert(this.table, this.columns, " ON DUPLICATE KEY UPDATE " + String.join(", ", assignments));
+    }
+
+    private static boolean hasDefault(ModelColumn<?> column)
+    {
+        return column.isAutoIncrement() || column.getDefaultValueSupplier() != null;
+    }
+
+    private static boolean isAbsent(List<Object[]> rows, int idx)
+    {
+        for (var row : rows)
+        {
+            if (row[idx] != null)
+                return false;
+        }
+
+        return true;
+    }
+
+    List<ModelColumn<?>> getColumns()
+    {
+        return this.columns;
+    }
+
+    /**
+     * @return the number of affected rows, as reported by the server
+     */
+    int execute(WriteDBConnection db, List<Object[]> rows)
+    {
+        var settings = this.table.getSchema().getManager().getServerSettings(db);
+        var updated = 0;
+
+        for (var chunk : this.split(rows, settings, MAX_ROWS_PER_STATEMENT))
+            updated += db.simpleUpdate(chunk.statement(), chunk.params());
+
+        return updated;
+    }
+
+    /**
+     * Inserts the rows and returns their auto-increment keys in input order.
+     *
+     * The keys of a multi-row statement are derived from the first one, which is only safe while InnoDB
+     * hands out consecutive values to a statement. That is the case for the traditional and consecutive lock modes
+     * and as long as no row brings its own key. Otherwise the rows are inserted one by one, reading each key.
+     */
+    long[] executeReturningKeys(WriteDBConnection db, List<Object[]> rows)
+    {
+        var tableColumns = List.copyOf(this.table.getColumns());
+        var keyColumn = tableColumns.stream()
+                                    .filter(ModelColumn::isAutoIncrement)
+                                    .findFirst()
+                                    .orElseThrow(() -> new IllegalStateException("Table `%s` has no auto-increment column.".formatted(this.table.getName())));
+        var keyIdx = tableColumns.indexOf(keyColumn);
+
+        var explicitKeys = rows.stream()
+                               .anyMatch(row -> row[keyIdx] != null);
+
+        var settings = this.table.getSchema().getManager().getServerSettings(db);
+        var consecutive = !explicitKeys && settings.autoIncLockMode() != ServerSettings.AUTOINC_LOCK_MODE_INTERLEAVED;
+        var increment = settings.autoIncIncrement();
+
+        var keys = new long[rows.size()];
+        var offset = 0;
+
+        for (var chunk : this.split(rows, settings, consecutive ? MAX_ROWS_PER_STATEMENT : 1))
+        {
+            var firstKey = db.exec(chunk.statement(), true, stat -> {
+                stat.executeUpdate();
+
+                try (var rs = stat.getGeneratedKeys())
+                {
+                    return rs.next() ? rs.getLong(1) : 0L;
+                }
+            }, chunk.params());
+
+            for (int i = 0; i < chunk.rowCount(); i++)
+            {
+                var explicitKey = rows.get(offset + i)[keyIdx];
+                keys[offset + i] = explicitKey != null ? ((Number) explicitKey).longValue() : firstKey + i * increment;
+            }
+
+            offset += chunk.rowCount();
+        }
+
+        return keys;
+    }
+
+    record Chunk(String statement, Object[] params, int rowCount)
+    {
+    }
+
+    List<Chunk> split(List<Object[]> rows, ServerSettings settings, int rowLimit)
+    {
+        var chunks = new ArrayList<Chunk>();
+
+        if (rows.isEmpty())
+            return chunks;
+
+        var maxBytes = (long) (settings.maxAllowedPacket() * PACKET_USAGE);
+        var maxRows = Math.min(rowLimit, MAX_PARAMS_PER_STATEMENT / this.columns.size());
+
+        var tableColumns = List.copyOf(this.table.getColumns());
+        var columnIndices = this.columns.stream()
+                                        .mapToInt(tableColumns::indexOf)
+                                        .toArray();
+
+        var sql = new StringBuilder(this.statementPrefix);
+        var params = new ArrayList<>(maxRows * this.columns.size());
+        var rowCount = 0;
+        var bytes = (long) this.statementPrefix.length() + this.statementSuffix.length();
+
+        for (var row : rows)
+        {
+            var rowBytes = estimateRowBytes(row, columnIndices);
+
+            if (rowCount > 0 && (rowCount == maxRows || bytes + rowBytes > maxBytes))
+            {
+                chunks.add(new Chunk(sql.append(this.statementSuffix).toString(), params.toArray(), rowCount));
+
+                sql.setLength(this.statementPrefix.length());
+                params.clear();
+                rowCount = 0;
+                bytes = (long) this.statementPrefix.length() + this.statementSuffix.length();
+            }
+
+            if (rowCount > 0)
+                sql.append(", ");
+
+            this.appendRow(sql, params, row, columnIndices);
+
+            rowCount++;
+            bytes += rowBytes;
+        }
+
+        chunks.add(new Chunk(sql.append(this.statementSuffix).toString(), params.toArray(), rowCount));
+
+        return chunks;
+    }
+
+    private void appendRow(StringBuilder sql, List<Object> params, Object[] row, int[] columnIndices)
+    {
+        sql.append('(');
+
+        for (int i = 0; i < columnIndices.length; i++)
+        {
+            if (i > 0)
+                sql.append(", ");
+
+            var column = this.columns.get(i);
+            var value = row[columnIndices[i]];
+
+            if (value != null)
+            {
+                sql.append('?');
+                params.add(value);
+            }
+            else if (hasDefault(column))
+            {
+                sql.append("DEFAULT");
+            }
+            else if (column.isNullable())
+            {
+                sql.append('?');
+                params.add(new ParamNull(column.getInfo().type()));
+            }
+            else
+            {
+                throw new IllegalArgumentException("Column `%s` cannot be null.".formatted(column.getName()));
+            }
+        }
+
+        sql.append(')');
+    }
+
+    /**
+     * Values are sent inline, escaped, so strings and byte arrays may take up to twice their size and more for multibyte characters.
+     */
+    private static long estimateRowBytes(Object[] row, int[] columnIndices)
+    {
+        var bytes = 4L;
+
+        for (var idx : columnIndices)
+        {
+            var value = row[idx];
+
+            if (value instanceof String str)
+                bytes += str.length() * 4L + 4;
+            else if (value instanceof byte[] data)
+                bytes += data.length * 2L + 4;
+            else if (value instanceof BigDecimal decimal)
+                bytes += decimal.precision() + 4;
+            else
+                bytes += 32;
+        }
+
+        return bytes;
+    }
+}
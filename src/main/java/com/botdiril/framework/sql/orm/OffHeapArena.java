@@ -0,0 +1,163 @@
+package com.botdiril.framework.sql.orm;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A fixed-size region of direct memory split into power-of-two slots, for the off-heap tier of {@link EntityCache}.
+ *
+ * The memory is allocated in a few large slabs as pages are first needed and reused from then on,
+ * so storing and evicting rows never allocates direct buffers. Each page is carved into the slots
+ * of a single size class and stays with it until {@link #reset()}.
+ *
+ * Not thread-safe, the owning cache synchronizes access.
+ */
+final class OffHeapArena
+{
+    static final int MIN_SLOT_SIZE = 32;
+    static final int PAGE_SIZE = 64 * 1024;
+
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(PAGE_SIZE) - Integer.numberOfTrailingZeros(MIN_SLOT_SIZE) + 1;
+    private static final int PAGES_PER_SLAB = 16 * 1024;
+
+    private final int totalPages;
+    private final List<ByteBuffer> slabs;
+    private int nextPage;
+
+    private final long[][] freeSlots;
+    private final int[] freeCounts;
+    private final int[] pageCounts;
+
+    OffHeapArena(long capacity)
+    {
+        this.totalPages = (int) Math.min(Integer.MAX_VALUE, (capacity + PAGE_SIZE - 1) / PAGE_SIZE);
+        this.slabs = new ArrayList<>();
+
+        this.freeSlots = new long[SIZE_CLASSES][];
+        this.freeCounts = new int[SIZE_CLASSES];
+        this.pageCounts = new int[SIZE_CLASSES];
+
+        for (int i = 0; i < SIZE_CLASSES; i++)
+            this.freeSlots[i] = new long[16];
+    }
+
+    /**
+     * @return the size class of the length, or -1 when it does not fit into a slot
+     */
+    static int sizeClassOf(int length)
+    {
+        if (length > PAGE_SIZE)
+            return -1;
+
+        var slotSize = Math.max(MIN_SLOT_SIZE, Integer.highestOneBit(length - 1) << 1);
+        return Integer.numberOfTrailingZeros(slotSize) - Integer.numberOfTrailingZeros(MIN_SLOT_SIZE);
+    }
+
+    static int slotSizeOf(int sizeClass)
+    {
+        return MIN_SLOT_SIZE << sizeClass;
+    }
+
+    /**
+     * @return whether freeing a slot of this size class can make room, because it owns at least one page
+     */
+    boolean hasPages(int sizeClass)
+    {
+        return this.pageCounts[sizeClass] > 0;
+    }
+
+    /**
+     * @return the address of a free slot, or -1 when the size class is exhausted and no page is left
+     */
+    long allocate(int sizeClass)
+    {
+        if (this.freeCounts[sizeClass] == 0 && !this.carvePage(sizeClass))
+            return -1;
+
+        return this.freeSlots[sizeClass][--this.freeCounts[sizeClass]];
+    }
+
+    void free(long address, int sizeClass)
+    {
+        var slots = this.freeSlots[sizeClass];
+
+        if (this.freeCounts[sizeClass] == slots.length)
+        {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+            this.freeSlots[sizeClass] = slots;
+        }
+
+        slots[this.freeCounts[sizeClass]++] = address;
+    }
+
+    void write(long address, byte[] data)
+    {
+        this.slabOf(address).put(offsetOf(address), data);
+    }
+
+    /**
+     * @return a view of the slot contents, valid until the slot is freed
+     */
+    ByteBuffer read(long address, int length)
+    {
+        return this.slabOf(address).slice(offsetOf(address), length);
+    }
+
+    /**
+     * Frees all slots and returns all pages to the arena, the slabs are kept.
+     */
+    void reset()
+    {
+        this.nextPage = 0;
+
+        Arrays.fill(this.freeCounts, 0);
+        Arrays.fill(this.pageCounts, 0);
+    }
+
+    /**
+     * @return the bytes of direct memory allocated so far
+     */
+    long getReservedBytes()
+    {
+        return this.slabs.stream()
+                         .mapToLong(ByteBuffer::capacity)
+                         .sum();
+    }
+
+    private boolean carvePage(int sizeClass)
+    {
+        if (this.nextPage == this.totalPages)
+            return false;
+
+        var page = this.nextPage++;
+        var slabIdx = page / PAGES_PER_SLAB;
+
+        if (slabIdx == this.slabs.size())
+        {
+            var pages = Math.min(PAGES_PER_SLAB, this.totalPages - page);
+            this.slabs.add(ByteBuffer.allocateDirect(pages * PAGE_SIZE));
+        }
+
+        this.pageCounts[sizeClass]++;
+
+        var slotSize = slotSizeOf(sizeClass);
+        var pageAddress = (long) page * PAGE_SIZE;
+
+        for (int offset = PAGE_SIZE - slotSize; offset >= 0; offset -= slotSize)
+            this.free(pageAddress + offset, sizeClass);
+
+        return true;
+    }
+
+    private ByteBuffer slabOf(long address)
+    {
+        return this.slabs.get((int) (address / ((long) PAGES_PER_SLAB * PAGE_SIZE)));
+    }
+
+    private static int offsetOf(long address)
+    {
+        return (int) (address % ((long) PAGES_PER_SLAB * PAGE_SIZE));
+    }
+}
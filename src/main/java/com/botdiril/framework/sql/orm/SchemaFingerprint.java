@@ -0,0 +1,104 @@
+package com.botdiril.framework.sql.orm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+
+import com.botdiril.framework.sql.connection.WriteDBConnection;
+
+/**
+ * A stable hash of everything a model contributes to the DDL, so an unchanged model can skip the schema verification.
+ *
+ * The fingerprints of the applied models are kept in {@value #TABLE_NAME} in the default schema,
+ * deleting a row forces the schema to be verified on the next startup.
+ */
+final class SchemaFingerprint
+{
+    static final String TABLE_NAME = "botdiril_schema_fingerprints";
+
+    /**
+     * Bump when the generated DDL changes, so existing schemas are verified again.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private SchemaFingerprint()
+    {
+    }
+
+    static String compute(Model model)
+    {
+        var sb = new StringBuilder();
+        sb.append("format ").append(FORMAT_VERSION).append('\n');
+        sb.append("schema ").append(model.getName()).append('\n');
+
+        // Declaration order is not guaranteed by reflection and does not matter for the verification
+        var tables = model.getTables()
+                          .stream()
+                          .sorted(Comparator.comparing(ModelTable::getName))
+                          .toList();
+
+        for (var table : tables)
+        {
+            sb.append("table ").append(table.getName()).append('\n');
+
+            var columns = table.getColumns()
+                               .stream()
+                               .sorted(Comparator.comparing(ModelColumn::getName))
+                               .toList();
+
+            for (var column : columns)
+            {
+                sb.append("  column ").append(column.getCreateInfo()).append('\n');
+
+                column.getReferredTables()
+                      .stream()
+                      .map(fk -> {
+                          var refCol = fk.column();
+                          var refTbl = refCol.getTable();
+                          return "    fk %s.%s.%s %s".formatted(refTbl.getSchema().getName(), refTbl.getName(), refCol.getName(), fk.parentDeleteAction().getCreateInfo());
+                      })
+                      .sorted()
+                      .forEach(fk -> sb.append(fk).append('\n'));
+            }
+        }
+
+        try
+        {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the stored fingerprints by schema name, creating the table when missing
+     */
+    static Map<String, String> load(WriteDBConnection db, String defaultSchema)
+    {
+        db.simpleExecute("""
+            CREATE TABLE IF NOT EXISTS `%s`.`%s` (
+              `sf_schema` VARCHAR(64) NOT NULL PRIMARY KEY,
+              `sf_fingerprint` CHAR(64) NOT NULL,
+              `sf_updated` DATETIME NOT NULL
+            )
+            """.formatted(defaultSchema, TABLE_NAME));
+
+        return db.getMap("SELECT `sf_schema`, `sf_fingerprint` FROM `%s`.`%s`".formatted(defaultSchema, TABLE_NAME),
+            "sf_schema", String.class, "sf_fingerprint", String.class);
+    }
+
+    static void store(WriteDBConnection db, String defaultSchema, String schemaName, String fingerprint)
+    {
+        db.simpleUpdate("""
+            INSERT INTO `%s`.`%s` (`sf_schema`, `sf_fingerprint`, `sf_updated`)
+            VALUES (?, ?, UTC_TIMESTAMP())
+            ON DUPLICATE KEY UPDATE `sf_fingerprint` = VALUES(`sf_fingerprint`), `sf_updated` = VALUES(`sf_updated`)
+            """.formatted(defaultSchema, TABLE_NAME), schemaName, fingerprint);
+    }
+}
@@ -0,0 +1,80 @@
+package com.botdiril.framework.sql.orm;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.botdiril.framework.sql.connection.ReadDBConnection;
+
+/**
+ * The tables, columns and foreign keys of one schema, loaded with a single {@code information_schema} query
+ * so the model can be diffed against the database without a round trip per column.
+ *
+ * Identifiers are compared case-insensitively, like MySQL compares column names.
+ */
+final class SchemaSnapshot
+{
+    private record ForeignKeyRef(String table, String column, String refSchema, String refTable, String refColumn)
+    {
+    }
+
+    private final Map<String, Set<String>> columnsByTable;
+    private final Set<ForeignKeyRef> foreignKeys;
+
+    private SchemaSnapshot()
+    {
+        this.columnsByTable = new HashMap<>();
+        this.foreignKeys = new HashSet<>();
+    }
+
+    static SchemaSnapshot load(ReadDBConnection db, String schemaName)
+    {
+        return db.query("""
+            SELECT 'C' AS `kind`, `TABLE_NAME`, `COLUMN_NAME`, NULL, NULL, NULL
+            FROM `information_schema`.`COLUMNS`
+            WHERE `TABLE_SCHEMA` = ?
+            UNION ALL
+            SELECT 'K', `TABLE_NAME`, `COLUMN_NAME`, `REFERENCED_TABLE_SCHEMA`, `REFERENCED_TABLE_NAME`, `REFERENCED_COLUMN_NAME`
+            FROM `information_schema`.`KEY_COLUMN_USAGE`
+            WHERE `TABLE_SCHEMA` = ? AND `REFERENCED_TABLE_NAME` IS NOT NULL
+            """, rs -> {
+            var snapshot = new SchemaSnapshot();
+
+            while (rs.next())
+            {
+                var table = normalize(rs.getString(2));
+                var column = normalize(rs.getString(3));
+
+                if ("C".equals(rs.getString(1)))
+                    snapshot.columnsByTable.computeIfAbsent(table, k -> new HashSet<>()).add(column);
+                else
+                    snapshot.foreignKeys.add(new ForeignKeyRef(table, column, normalize(rs.getString(4)), normalize(rs.getString(5)), normalize(rs.getString(6))));
+            }
+
+            return snapshot;
+        }, schemaName, schemaName);
+    }
+
+    private static String normalize(String identifier)
+    {
+        return identifier.toLowerCase(Locale.ROOT);
+    }
+
+    boolean hasTable(String table)
+    {
+        return this.columnsByTable.containsKey(normalize(table));
+    }
+
+    boolean hasColumn(String table, String column)
+    {
+        var columns = this.columnsByTable.get(normalize(table));
+        return columns != null && columns.contains(normalize(column));
+    }
+
+    boolean hasForeignKey(String table, String column, String refSchema, String refTable, String refColumn)
+    {
+        return this.foreignKeys.contains(new ForeignKeyRef(normalize(table), normalize(column), normalize(refSchema), normalize(refTable), normalize(refColumn)));
+    }
+}
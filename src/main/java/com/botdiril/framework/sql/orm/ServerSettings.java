@@ -0,0 +1,29 @@
+package com.botdiril.framework.sql.orm;
+
+import com.botdiril.framework.sql.connection.WriteDBConnection;
+
+/**
+ * Server variables that shape multi-row inserts, fetched once per {@link ModelManager}.
+ *
+ * {@code max_allowed_packet} and {@code innodb_autoinc_lock_mode} only change with a server restart
+ * or for new connections, so a cached value is safe for the lifetime of the pool.
+ */
+record ServerSettings(long maxAllowedPacket, int autoIncLockMode, long autoIncIncrement)
+{
+    static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024 * 1024;
+
+    /**
+     * Concurrent statements may interleave their auto-increment values.
+     */
+    static final int AUTOINC_LOCK_MODE_INTERLEAVED = 2;
+
+    static ServerSettings fetch(WriteDBConnection db)
+    {
+        return db.query("SELECT @@max_allowed_packet, @@innodb_autoinc_lock_mode, @@auto_increment_increment", rs -> {
+            if (!rs.next())
+                return new ServerSettings(DEFAULT_MAX_ALLOWED_PACKET, AUTOINC_LOCK_MODE_INTERLEAVED, 1);
+
+            return new ServerSettings(rs.getLong(1), rs.getInt(2), rs.getLong(3));
+        });
+    }
+}
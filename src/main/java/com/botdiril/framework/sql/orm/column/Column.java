@@ -15,4 +15,9 @@ public @interface Column
     int[] bounds() default {};
 
     Class<?> dataType();
+
+    /**
+     * The enum of a {@code SET} column, whose data type is {@link java.util.EnumSet}.
+     */
+    Class<?> elementType() default void.class;
 }
@@ -7,14 +7,16 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 import com.botdiril.framework.sql.orm.column.bounds.DecimalPrecision;
+import com.botdiril.framework.sql.orm.types.EnumCodec;
 import com.botdiril.framework.sql.orm.types.EnumDataType;
+import com.botdiril.framework.sql.orm.types.TypeConverters;
 
 public record ColumnInfo<T>(String name, MysqlType type, Class<T> javaType, Object bounds)
 {
     public ColumnInfo
     {
         var requiredType = switch (type) {
-            case INT, BIGINT, VARCHAR, BLOB, FLOAT, DOUBLE -> Integer.class;
+            case INT, BIGINT, VARCHAR, BLOB, FLOAT, DOUBLE, BINARY, VARBINARY -> Integer.class;
             case ENUM, SET -> Class.class;
             case DECIMAL -> DecimalPrecision.class;
             default -> null;
@@ -22,6 +24,12 @@ public record ColumnInfo<T>(String name, MysqlType type, Class<T> javaType, Obje
 
         if (requiredType != null && !requiredType.isInstance(bounds))
             throw new IllegalArgumentException("Data type bounds type mismatch.");
+
+        if ((type == MysqlType.ENUM || type == MysqlType.SET) && !((Class<?>) bounds).isEnum())
+            throw new IllegalArgumentException("ENUM and SET columns require an enum class.");
+
+        if (type == MysqlType.SET && ((Class<?>) bounds).getEnumConstants().length > EnumCodec.MAX_SET_MEMBERS)
+            throw new IllegalArgumentException("A SET column can have at most %d members.".formatted(EnumCodec.MAX_SET_MEMBERS));
     }
 
     public static <T> ColumnInfo<T> of(String name, Class<T> javaType)
@@ -33,16 +41,50 @@ public record ColumnInfo<T>(String name, MysqlType type, Class<T> javaType, Obje
     {
         var dataType = EnumDataType.getByClass(javaType);
 
+        if (dataType == null)
+            return ofConverted(name, javaType, bounds);
+
         return new ColumnInfo<>(name, dataType.getJDBCType(), javaType, switch (dataType) {
             case INT -> Objects.requireNonNullElse(bounds, 11);
             case BIGINT -> Objects.requireNonNullElse(bounds, 20);
             case FLOAT -> Objects.requireNonNullElse(bounds, 24);
             case DOUBLE ->  Objects.requireNonNullElse(bounds, 53);
             case DECIMAL -> Objects.requireNonNullElse(bounds, new DecimalPrecision(10, 0));
+            case ENUM -> javaType;
             default -> bounds;
         });
     }
 
+    private static <T> ColumnInfo<T> ofConverted(String name, Class<T> javaType, Object bounds)
+    {
+        var converter = TypeConverters.get(javaType);
+
+        if (converter == null)
+            throw new IllegalArgumentException("Unsupported column data type %s.".formatted(javaType.getName()));
+
+        // Raw annotation bounds are passed through when no bounds provider is known for the type
+        if (bounds instanceof int[] raw)
+        {
+            if (raw.length > 1)
+                throw new IllegalArgumentException("Expecting one or zero values.");
+
+            bounds = raw.length == 1 ? raw[0] : null;
+        }
+
+        return new ColumnInfo<>(name, converter.getStorageType(), javaType, Objects.requireNonNullElse(bounds, converter.getDefaultBounds()));
+    }
+
+    /**
+     * Resolves the index-based extractor of the column, which for {@code SET} columns depends on the element enum.
+     */
+    public EnumDataType.IndexedValueExtractor<Object> getIndexedExtractor()
+    {
+        if (this.type == MysqlType.SET)
+            return EnumCodec.forClass((Class<?>) this.bounds).getSetExtractor();
+
+        return EnumDataType.getIndexedExtractorByClass(this.javaType);
+    }
+
     @Override
     public String toString()
     {
@@ -54,7 +96,7 @@ public record ColumnInfo<T>(String name, MysqlType type, Class<T> javaType, Obje
 
         switch (this.type)
         {
-            case INT, BIGINT, VARCHAR, BLOB, FLOAT, DOUBLE -> {
+            case INT, BIGINT, VARCHAR, BLOB, FLOAT, DOUBLE, BINARY, VARBINARY -> {
                 sb.append('(');
                 sb.append(this.bounds);
                 sb.append(')');
@@ -62,10 +104,11 @@ public record ColumnInfo<T>(String name, MysqlType type, Class<T> javaType, Obje
 
             case ENUM, SET -> {
                 sb.append('(');
-                var enumConstants =  ((Class<?>) this.bounds).getEnumConstants();
+                var enumConstants = ((Class<?>) this.bounds).getEnumConstants();
                 var names = Arrays.stream(enumConstants)
                                   .map(Enum.class::cast)
                                   .map(Enum::name)
+                                  .map(name -> "'" + name + "'")
                                   .collect(Collectors.joining(","));
 
                 sb.append(names);
@@ -0,0 +1,24 @@
+package com.botdiril.framework.sql.orm.table;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables the primary key entity cache of a {@link Table}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cached
+{
+    /**
+     * The maximum number of rows kept on the heap.
+     */
+    int maxEntries() default 10_000;
+
+    /**
+     * The size of the off-heap tier receiving rows evicted from the heap, zero disables it.
+     */
+    long offHeapBytes() default 0;
+}
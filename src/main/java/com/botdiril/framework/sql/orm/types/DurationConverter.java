@@ -0,0 +1,51 @@
+package com.botdiril.framework.sql.orm.types;
+
+import com.mysql.cj.MysqlType;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Stores durations as {@code BIGINT} nanoseconds, which covers about 292 years either way.
+ */
+public final class DurationConverter implements TypeConverter<Duration>
+{
+    public static final DurationConverter INSTANCE = new DurationConverter();
+
+    private DurationConverter()
+    {
+    }
+
+    @Override
+    public Class<Duration> getJavaType()
+    {
+        return Duration.class;
+    }
+
+    @Override
+    public MysqlType getStorageType()
+    {
+        return MysqlType.BIGINT;
+    }
+
+    @Override
+    public Object getDefaultBounds()
+    {
+        return 20;
+    }
+
+    @Override
+    public void write(PreparedStatement statement, int idx, Duration value) throws SQLException
+    {
+        statement.setLong(idx, value.toNanos());
+    }
+
+    @Override
+    public Duration read(ResultSet resultSet, int column) throws SQLException
+    {
+        var nanos = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : Duration.ofNanos(nanos);
+    }
+}
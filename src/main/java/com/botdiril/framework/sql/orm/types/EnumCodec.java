@@ -0,0 +1,162 @@
+package com.botdiril.framework.sql.orm.types;
+
+import java.util.*;
+
+import com.botdiril.framework.sql.util.DBException;
+
+/**
+ * Converts between the constants of an enum and MySQL {@code ENUM} and {@code SET} values.
+ *
+ * The name lookup table is built once per enum class, {@code SET} values are exchanged as bitmasks of the constant ordinals,
+ * which match the member order of the column definition generated by {@link com.botdiril.framework.sql.orm.column.ColumnInfo}.
+ * Selecting a {@code SET} column as {@code col+0} makes MySQL send the bitmask instead of the comma-joined names.
+ */
+public final class EnumCodec<E extends Enum<E>>
+{
+    /**
+     * The member limit of a MySQL {@code SET}.
+     */
+    public static final int MAX_SET_MEMBERS = 64;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static final ClassValue<EnumCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected EnumCodec<?> computeValue(Class<?> type)
+        {
+            if (!type.isEnum())
+                throw new IllegalArgumentException("%s is not an enum.".formatted(type.getName()));
+
+            return new EnumCodec(type);
+        }
+    };
+
+    private final Class<E> enumType;
+    private final E[] constants;
+    private final Map<String, E> constantsByName;
+
+    private final EnumDataType.IndexedValueExtractor<Object> enumExtractor;
+    private final EnumDataType.IndexedValueExtractor<Object> setExtractor;
+
+    private EnumCodec(Class<E> enumType)
+    {
+        this.enumType = enumType;
+        this.constants = enumType.getEnumConstants();
+        this.constantsByName = new HashMap<>(this.constants.length * 2);
+
+        for (var constant : this.constants)
+            this.constantsByName.put(constant.name(), constant);
+
+        this.enumExtractor = (resultSet, column) -> {
+            var name = resultSet.getString(column);
+            return name == null ? null : this.fromName(name);
+        };
+
+        this.setExtractor = (resultSet, column) -> {
+            var value = resultSet.getObject(column);
+
+            if (value == null)
+                return null;
+
+            if (value instanceof Number mask)
+                return this.fromMask(mask.longValue());
+
+            return this.fromNames(value.toString());
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> EnumCodec<E> of(Class<E> enumType)
+    {
+        return (EnumCodec<E>) CODECS.get(enumType);
+    }
+
+    /**
+     * Resolves the codec of an enum class not known at compile time.
+     */
+    public static EnumCodec<?> forClass(Class<?> enumType)
+    {
+        return CODECS.get(enumType);
+    }
+
+    public Class<E> getEnumType()
+    {
+        return this.enumType;
+    }
+
+    public E fromName(String name)
+    {
+        var constant = this.constantsByName.get(name);
+
+        if (constant == null)
+            throw new DBException("Unknown constant `%s` of %s.".formatted(name, this.enumType.getName()));
+
+        return constant;
+    }
+
+    /**
+     * @param names the comma-joined member names, as MySQL returns a {@code SET} column
+     */
+    public EnumSet<E> fromNames(String names)
+    {
+        var set = EnumSet.noneOf(this.enumType);
+
+        if (names.isEmpty())
+            return set;
+
+        for (var name : names.split(","))
+            set.add(this.fromName(name));
+
+        return set;
+    }
+
+    public EnumSet<E> fromMask(long mask)
+    {
+        var set = EnumSet.noneOf(this.enumType);
+
+        for (var bits = mask; bits != 0; bits &= bits - 1)
+        {
+            var ordinal = Long.numberOfTrailingZeros(bits);
+
+            if (ordinal >= this.constants.length)
+                throw new DBException("Bit %d of the mask does not match any constant of %s.".formatted(ordinal, this.enumType.getName()));
+
+            set.add(this.constants[ordinal]);
+        }
+
+        return set;
+    }
+
+    /**
+     * @param set a set of enum constants, typically an {@link EnumSet}
+     */
+    public static long toMask(Set<?> set)
+    {
+        var mask = 0L;
+
+        for (var element : set)
+        {
+            var constant = (Enum<?>) element;
+            var ordinal = constant.ordinal();
+
+            if (ordinal >= MAX_SET_MEMBERS)
+                throw new IllegalArgumentException("Constant %s is out of the range of a SET.".formatted(constant));
+
+            mask |= 1L << ordinal;
+        }
+
+        return mask;
+    }
+
+    public EnumDataType.IndexedValueExtractor<Object> getEnumExtractor()
+    {
+        return this.enumExtractor;
+    }
+
+    /**
+     * Reads both the bitmask form ({@code col+0}) and the comma-joined form of a {@code SET} column.
+     */
+    public EnumDataType.IndexedValueExtractor<Object> getSetExtractor()
+    {
+        return this.setExtractor;
+    }
+}
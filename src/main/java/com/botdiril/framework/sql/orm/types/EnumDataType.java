@@ -2,49 +2,84 @@ package com.botdiril.framework.sql.orm.types;
 
 import com.mysql.cj.MysqlType;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
 
-import com.botdiril.framework.sql.util.DBException;
-
 public enum EnumDataType
 {
-    BOOLEAN(MysqlType.BOOLEAN, Boolean.class, Set.of(boolean.class, Boolean.class), ResultSet::getBoolean, PreparedStatement::setBoolean),
+    BOOLEAN(MysqlType.BOOLEAN, Boolean.class, Set.of(boolean.class, Boolean.class), ResultSet::getBoolean, ResultSet::getBoolean, PreparedStatement::setBoolean),
 
-    INT(MysqlType.INT, Integer.class, Set.of(int.class, Integer.class), ResultSet::getInt, PreparedStatement::setInt),
+    INT(MysqlType.INT, Integer.class, Set.of(int.class, Integer.class), ResultSet::getInt, ResultSet::getInt, PreparedStatement::setInt),
 
-    BIGINT(MysqlType.BIGINT, Long.class, Set.of(long.class, Long.class), ResultSet::getLong, PreparedStatement::setLong),
+    BIGINT(MysqlType.BIGINT, Long.class, Set.of(long.class, Long.class), ResultSet::getLong, ResultSet::getLong, PreparedStatement::setLong),
 
-    FLOAT(MysqlType.FLOAT, Float.class, Set.of(float.class, Float.class), ResultSet::getFloat, PreparedStatement::setFloat),
+    FLOAT(MysqlType.FLOAT, Float.class, Set.of(float.class, Float.class), ResultSet::getFloat, ResultSet::getFloat, PreparedStatement::setFloat),
 
-    DOUBLE(MysqlType.DOUBLE, Double.class, Set.of(double.class, Double.class), ResultSet::getDouble, PreparedStatement::setDouble),
+    DOUBLE(MysqlType.DOUBLE, Double.class, Set.of(double.class, Double.class), ResultSet::getDouble, ResultSet::getDouble, PreparedStatement::setDouble),
 
-    VARCHAR(MysqlType.VARCHAR, String.class, Set.of(String.class), ResultSet::getString, PreparedStatement::setString),
+    VARCHAR(MysqlType.VARCHAR, String.class, Set.of(String.class), ResultSet::getString, ResultSet::getString, PreparedStatement::setString),
 
-    BLOB(MysqlType.BLOB, byte[].class, Set.of(byte[].class), EnumDataType::retrieveBlob, (statement, idx, value) -> {
-        ByteArrayInputStream stream = new ByteArrayInputStream(value);
-        statement.setBinaryStream(idx, stream);
-    }),
+    BLOB(MysqlType.BLOB, byte[].class, Set.of(byte[].class), ResultSet::getBytes, ResultSet::getBytes, PreparedStatement::setBytes),
 
-    DECIMAL(MysqlType.DECIMAL, BigDecimal.class, Set.of(BigDecimal.class), ResultSet::getBigDecimal, PreparedStatement::setBigDecimal),
+    DECIMAL(MysqlType.DECIMAL, BigDecimal.class, Set.of(BigDecimal.class), ResultSet::getBigDecimal, ResultSet::getBigDecimal, PreparedStatement::setBigDecimal),
 
     LOCAL_DATE_TIME(MysqlType.TIMESTAMP, LocalDateTime.class, Set.of(LocalDateTime.class),
-        (resultSet, column) -> resultSet.getTimestamp(column).toLocalDateTime(),
+        (resultSet, column) -> toLocalDateTime(resultSet.getTimestamp(column)),
+        (resultSet, column) -> toLocalDateTime(resultSet.getTimestamp(column)),
         PreparedStatement::setObject),
 
-    ENUM(MysqlType.ENUM, Enum.class, Set.of(Enum.class), null, null),
+    /**
+     * Extracted per enum class, see {@link EnumCodec}.
+     */
+    ENUM(MysqlType.ENUM, Enum.class, Set.of(Enum.class), null, null, (statement, idx, value) -> statement.setString(idx, value.name())),
 
-    SET(MysqlType.SET, EnumSet.class, Set.of(EnumSet.class), null, null);
+    /**
+     * Written as a bitmask and extracted per enum class, see {@link EnumCodec}.
+     */
+    SET(MysqlType.SET, EnumSet.class, Set.of(EnumSet.class), null, null, (statement, idx, value) -> statement.setLong(idx, EnumCodec.toMask(value)));
 
     private static final Map<Class<?>, EnumDataType> CLASS_MAP = new HashMap<>();
     private static final Map<MysqlType, EnumDataType> JDBC_MAP = new HashMap<>();
 
+    private static final ClassValue<ValueWriter<Object>> WRITERS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected ValueWriter<Object> computeValue(Class<?> type)
+        {
+            var converter = (TypeConverter<Object>) TypeConverters.get(type);
+
+            if (converter != null)
+                return converter::write;
+
+            var dataType = getByClass(type);
+            return dataType != null ? dataType.getWriter() : null;
+        }
+    };
+
+    private static final ClassValue<IndexedValueExtractor<Object>> INDEXED_EXTRACTORS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected IndexedValueExtractor<Object> computeValue(Class<?> type)
+        {
+            var converter = (TypeConverter<Object>) TypeConverters.get(type);
+
+            if (converter != null)
+                return converter::read;
+
+            if (type.isEnum())
+                return EnumCodec.forClass(type).getEnumExtractor();
+
+            var dataType = getByClass(type);
+            return dataType != null ? dataType.getIndexedExtractor() : null;
+        }
+    };
+
     static
     {
         for (var dt : values())
@@ -58,20 +93,53 @@ public enum EnumDataType
     private final Class<?> rootClass;
     private final Set<Class<?>> classes;
     private final ValueExtractor<?> extractor;
+    private final IndexedValueExtractor<?> indexedExtractor;
     private final ValueWriter<?> writer;
 
-    <T> EnumDataType(MysqlType type, Class<T> rootClass, Set<Class<?>> classes, ValueExtractor<T> extractor, ValueWriter<T> writer)
+    <T> EnumDataType(MysqlType type, Class<T> rootClass, Set<Class<?>> classes, ValueExtractor<T> extractor, IndexedValueExtractor<T> indexedExtractor, ValueWriter<T> writer)
     {
         this.type = type;
         this.rootClass = rootClass;
         this.classes = classes;
         this.extractor = extractor;
+        this.indexedExtractor = indexedExtractor;
         this.writer = writer;
     }
 
     public static EnumDataType getByClass(Class<?> klass)
     {
-        return CLASS_MAP.get(klass);
+        var dataType = CLASS_MAP.get(klass);
+
+        if (dataType != null)
+            return dataType;
+
+        // Enum constants with a body and EnumSet implementations are subclasses
+        if (Enum.class.isAssignableFrom(klass))
+            return ENUM;
+
+        if (EnumSet.class.isAssignableFrom(klass))
+            return SET;
+
+        return null;
+    }
+
+    /**
+     * Resolves the value writer for a parameter class, without hashing the class on every call.
+     * Registered {@link TypeConverter}s are consulted first.
+     */
+    public static ValueWriter<Object> getWriterByClass(Class<?> klass)
+    {
+        return WRITERS.get(klass);
+    }
+
+    /**
+     * Resolves the index-based value extractor for a result class, without hashing the class on every call.
+     *
+     * {@link EnumSet} has no extractor here, as its element type is erased, see {@link EnumCodec#getSetExtractor()}.
+     */
+    public static IndexedValueExtractor<Object> getIndexedExtractorByClass(Class<?> klass)
+    {
+        return INDEXED_EXTRACTORS.get(klass);
     }
 
     public Set<Class<?>> getClasses()
@@ -100,6 +168,12 @@ public enum EnumDataType
         return (ValueExtractor<Object>) this.extractor;
     }
 
+    @SuppressWarnings("unchecked")
+    public IndexedValueExtractor<Object> getIndexedExtractor()
+    {
+        return (IndexedValueExtractor<Object>) this.indexedExtractor;
+    }
+
     @SuppressWarnings("unchecked")
     public ValueWriter<Object> getWriter()
     {
@@ -112,36 +186,21 @@ public enum EnumDataType
         T extract(ResultSet resultSet, String column) throws IOException, SQLException;
     }
 
+    @FunctionalInterface
+    public interface IndexedValueExtractor<T>
+    {
+        T extract(ResultSet resultSet, int column) throws IOException, SQLException;
+    }
+
     @FunctionalInterface
     public interface ValueWriter<T>
     {
         void write(PreparedStatement statement, int idx, T value) throws IOException, SQLException;
     }
 
-    private static byte[] retrieveBlob(ResultSet resultSet, String columnName) throws SQLException, IOException
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp)
     {
-        var blob = resultSet.getBlob(columnName);
-
-        if (resultSet.wasNull())
-        {
-            blob.free();
-            return null;
-        }
-
-        try (var is = blob.getBinaryStream())
-        {
-            var size = (int) blob.length();
-            var bytes = new byte[size];
-
-            if (is.read(bytes) != bytes.length)
-                throw new DBException("Blob read size mismatch.");
-
-            return bytes;
-        }
-        finally
-        {
-            blob.free();
-        }
+        return timestamp == null ? null : timestamp.toLocalDateTime();
     }
 
 }
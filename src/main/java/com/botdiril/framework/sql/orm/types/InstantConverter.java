@@ -0,0 +1,51 @@
+package com.botdiril.framework.sql.orm.types;
+
+import com.mysql.cj.MysqlType;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+
+/**
+ * Stores instants as {@code BIGINT} milliseconds since the epoch, sub-millisecond precision is truncated.
+ */
+public final class InstantConverter implements TypeConverter<Instant>
+{
+    public static final InstantConverter INSTANCE = new InstantConverter();
+
+    private InstantConverter()
+    {
+    }
+
+    @Override
+    public Class<Instant> getJavaType()
+    {
+        return Instant.class;
+    }
+
+    @Override
+    public MysqlType getStorageType()
+    {
+        return MysqlType.BIGINT;
+    }
+
+    @Override
+    public Object getDefaultBounds()
+    {
+        return 20;
+    }
+
+    @Override
+    public void write(PreparedStatement statement, int idx, Instant value) throws SQLException
+    {
+        statement.setLong(idx, value.toEpochMilli());
+    }
+
+    @Override
+    public Instant read(ResultSet resultSet, int column) throws SQLException
+    {
+        var millis = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : Instant.ofEpochMilli(millis);
+    }
+}
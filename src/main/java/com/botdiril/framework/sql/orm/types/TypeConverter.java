@@ -0,0 +1,32 @@
+package com.botdiril.framework.sql.orm.types;
+
+import com.mysql.cj.MysqlType;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Stores a Java type that has no {@link EnumDataType} in one of the column types MySQL supports.
+ *
+ * Converters are registered with {@link TypeConverters#register(TypeConverter)} and consulted by column definitions,
+ * parameter binding and value extraction alike.
+ */
+public interface TypeConverter<T>
+{
+    Class<T> getJavaType();
+
+    MysqlType getStorageType();
+
+    /**
+     * @return the column bounds used when the column declares none, for example the length of a {@code BINARY} column
+     */
+    Object getDefaultBounds();
+
+    void write(PreparedStatement statement, int idx, T value) throws SQLException;
+
+    /**
+     * @return the value, or null for SQL {@code NULL}
+     */
+    T read(ResultSet resultSet, int column) throws SQLException;
+}
@@ -0,0 +1,47 @@
+package com.botdiril.framework.sql.orm.types;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registry of {@link TypeConverter}s, with converters for {@link java.util.UUID}, {@link java.time.Instant}
+ * and {@link java.time.Duration} registered by default.
+ *
+ * Writers and extractors are cached per class once used, so converters should be registered
+ * before the model is created and before the first statement using their type.
+ */
+public final class TypeConverters
+{
+    private static final Map<Class<?>, TypeConverter<?>> CONVERTERS = new ConcurrentHashMap<>();
+
+    static
+    {
+        register(UuidConverter.BYTE_ORDERED);
+        register(InstantConverter.INSTANCE);
+        register(DurationConverter.INSTANCE);
+    }
+
+    private TypeConverters()
+    {
+    }
+
+    /**
+     * Registers the converter, replacing the converter previously registered for the same type.
+     */
+    public static void register(TypeConverter<?> converter)
+    {
+        if (EnumDataType.getByClass(converter.getJavaType()) != null)
+            throw new IllegalArgumentException("%s is a built-in data type.".formatted(converter.getJavaType().getName()));
+
+        CONVERTERS.put(converter.getJavaType(), converter);
+    }
+
+    /**
+     * @return the converter of the type, or null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeConverter<T> get(Class<T> type)
+    {
+        return (TypeConverter<T>) CONVERTERS.get(type);
+    }
+}
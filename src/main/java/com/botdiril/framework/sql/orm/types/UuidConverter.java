@@ -0,0 +1,106 @@
+package com.botdiril.framework.sql.orm.types;
+
+import com.mysql.cj.MysqlType;
+
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import com.botdiril.framework.sql.util.DBException;
+
+/**
+ * Stores UUIDs as {@code BINARY(16)} instead of 36 characters.
+ *
+ * The time-ordered layout moves the time-high and time-mid fields of a version 1 UUID in front of time-low,
+ * like {@code UUID_TO_BIN(uuid, 1)}, so keys generated close in time are close in the index.
+ * It should only be used for time-based UUIDs and cannot be mixed with the byte-ordered layout in one column.
+ */
+public final class UuidConverter implements TypeConverter<UUID>
+{
+    public static final int LENGTH = 16;
+
+    public static final UuidConverter BYTE_ORDERED = new UuidConverter(false);
+    public static final UuidConverter TIME_ORDERED = new UuidConverter(true);
+
+    private final boolean timeOrdered;
+
+    private UuidConverter(boolean timeOrdered)
+    {
+        this.timeOrdered = timeOrdered;
+    }
+
+    @Override
+    public Class<UUID> getJavaType()
+    {
+        return UUID.class;
+    }
+
+    @Override
+    public MysqlType getStorageType()
+    {
+        return MysqlType.BINARY;
+    }
+
+    @Override
+    public Object getDefaultBounds()
+    {
+        return LENGTH;
+    }
+
+    @Override
+    public void write(PreparedStatement statement, int idx, UUID value) throws SQLException
+    {
+        statement.setBytes(idx, this.toBytes(value));
+    }
+
+    @Override
+    public UUID read(ResultSet resultSet, int column) throws SQLException
+    {
+        var bytes = resultSet.getBytes(column);
+        return bytes == null ? null : this.fromBytes(bytes);
+    }
+
+    public byte[] toBytes(UUID value)
+    {
+        var bytes = ByteBuffer.allocate(LENGTH)
+                              .putLong(value.getMostSignificantBits())
+                              .putLong(value.getLeastSignificantBits())
+                              .array();
+
+        return this.timeOrdered ? swapTimeFields(bytes, true) : bytes;
+    }
+
+    public UUID fromBytes(byte[] bytes)
+    {
+        if (bytes.length != LENGTH)
+            throw new DBException("Expected %d bytes of a UUID, got %d.".formatted(LENGTH, bytes.length));
+
+        var buf = ByteBuffer.wrap(this.timeOrdered ? swapTimeFields(bytes, false) : bytes);
+        return new UUID(buf.getLong(), buf.getLong());
+    }
+
+    /**
+     * Converts between {@code time_low-time_mid-time_hi} and {@code time_hi-time_mid-time_low}.
+     */
+    private static byte[] swapTimeFields(byte[] bytes, boolean toTimeOrdered)
+    {
+        var result = bytes.clone();
+
+        if (toTimeOrdered)
+        {
+            System.arraycopy(bytes, 6, result, 0, 2);
+            System.arraycopy(bytes, 4, result, 2, 2);
+            System.arraycopy(bytes, 0, result, 4, 4);
+        }
+        else
+        {
+            System.arraycopy(bytes, 0, result, 6, 2);
+            System.arraycopy(bytes, 2, result, 4, 2);
+            System.arraycopy(bytes, 4, result, 0, 4);
+        }
+
+        return result;
+    }
+}
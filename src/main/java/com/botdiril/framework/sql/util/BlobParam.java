@@ -0,0 +1,219 @@
+package com.botdiril.framework.sql.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A BLOB statement parameter streamed from a buffer, a channel or a file region instead of a {@code byte[]}.
+ *
+ * Values up to {@link #DIRECT_THRESHOLD} bytes are bound with {@link PreparedStatement#setBytes(int, byte[])},
+ * larger ones as a length-delimited stream. With server-side prepared statements the driver then sends the stream
+ * in chunks, otherwise it copies the stream into the statement packet.
+ *
+ * Channel and file parameters can only be bound once. Files opened for binding are closed
+ * by the connection once the statement has been executed, through {@link #close()}.
+ */
+public final class BlobParam implements AutoCloseable
+{
+    public static final int DIRECT_THRESHOLD = 64 * 1024;
+
+    @FunctionalInterface
+    private interface Binder
+    {
+        /**
+         * @return the resource opened for the bound stream, or null
+         */
+        Closeable bind(PreparedStatement statement, int idx) throws IOException, SQLException;
+    }
+
+    private final long length;
+    private final Binder binder;
+
+    /**
+     * Opened by the last bind, kept open until the statement has been executed.
+     */
+    private Closeable resource;
+
+    private BlobParam(long length, Binder binder)
+    {
+        this.length = length;
+        this.binder = binder;
+    }
+
+    /**
+     * Binds the remaining bytes of the buffer, without changing its position.
+     */
+    public static BlobParam of(ByteBuffer buffer)
+    {
+        var data = buffer.slice();
+        var length = data.remaining();
+
+        return new BlobParam(length, (statement, idx) -> {
+            if (length > DIRECT_THRESHOLD)
+            {
+                statement.setBinaryStream(idx, new ByteBufferInputStream(data.duplicate()), length);
+                return null;
+            }
+
+            var bytes = new byte[length];
+            data.duplicate().get(bytes);
+            statement.setBytes(idx, bytes);
+            return null;
+        });
+    }
+
+    /**
+     * Binds exactly {@code length} bytes read from the channel, which stays open and is owned by the caller.
+     */
+    public static BlobParam of(ReadableByteChannel channel, long length)
+    {
+        return new BlobParam(length, (statement, idx) -> {
+            bindStream(statement, idx, Channels.newInputStream(channel), length);
+            return null;
+        });
+    }
+
+    public static BlobParam ofFile(Path path) throws IOException
+    {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            return ofFileRegion(path, 0, channel.size());
+        }
+    }
+
+    /**
+     * Binds {@code length} bytes of the file starting at {@code offset}. The file is opened when the parameter is bound
+     * and closed once the statement has been executed, small regions are read right away.
+     */
+    public static BlobParam ofFileRegion(Path path, long offset, long length)
+    {
+        return new BlobParam(length, (statement, idx) -> {
+            var channel = FileChannel.open(path, StandardOpenOption.READ);
+
+            try
+            {
+                channel.position(offset);
+                bindStream(statement, idx, Channels.newInputStream(channel), length);
+            }
+            catch (Throwable e)
+            {
+                channel.close();
+                throw e;
+            }
+
+            if (length <= DIRECT_THRESHOLD)
+            {
+                channel.close();
+                return null;
+            }
+
+            return channel;
+        });
+    }
+
+    private static void bindStream(PreparedStatement statement, int idx, InputStream stream, long length) throws IOException, SQLException
+    {
+        if (length <= DIRECT_THRESHOLD)
+        {
+            var bytes = stream.readNBytes((int) length);
+
+            if (bytes.length != length)
+                throw new DBException("The BLOB source ended after %d of %d bytes.".formatted(bytes.length, length));
+
+            statement.setBytes(idx, bytes);
+            return;
+        }
+
+        statement.setBinaryStream(idx, stream, length);
+    }
+
+    public long length()
+    {
+        return this.length;
+    }
+
+    public void bind(PreparedStatement statement, int idx) throws IOException, SQLException
+    {
+        // A parameter bound again before being executed
+        this.close();
+
+        this.resource = this.binder.bind(statement, idx);
+    }
+
+    /**
+     * Closes the file opened by the last bind, if any.
+     */
+    @Override
+    public void close()
+    {
+        if (this.resource == null)
+            return;
+
+        try
+        {
+            this.resource.close();
+        }
+        catch (IOException e)
+        {
+            SqlLogger.instance.warn("Failed to close a BLOB source.", e);
+        }
+        finally
+        {
+            this.resource = null;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "<%d byte BLOB>".formatted(this.length);
+    }
+
+    /**
+     * Reads a buffer without copying it into an intermediate array.
+     */
+    private static final class ByteBufferInputStream extends InputStream
+    {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer)
+        {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read()
+        {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int off, int len)
+        {
+            if (len == 0)
+                return 0;
+
+            if (!this.buffer.hasRemaining())
+                return -1;
+
+            var count = Math.min(len, this.buffer.remaining());
+            this.buffer.get(bytes, off, count);
+            return count;
+        }
+
+        @Override
+        public int available()
+        {
+            return this.buffer.remaining();
+        }
+    }
+}
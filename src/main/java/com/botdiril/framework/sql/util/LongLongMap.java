@@ -0,0 +1,217 @@
+package com.botdiril.framework.sql.util;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * An open-addressing hash map of primitive {@code long} keys to {@code long} values, storing no boxes or entry objects.
+ *
+ * Values may be null, which is tracked in a bitmap next to the value array and distinguished from absent keys
+ * by {@link #containsKey(long)} and {@link #isNull(long)}.
+ */
+public final class LongLongMap
+{
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * Zero marks free slots, the zero key is stored aside.
+     */
+    private long[] keys;
+    private long[] values;
+    private long[] nullBits;
+    private int size;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+    private boolean zeroNull;
+
+    public LongLongMap()
+    {
+        this(16);
+    }
+
+    public LongLongMap(int expectedSize)
+    {
+        this.allocate(OpenAddressing.capacityFor(expectedSize, LOAD_FACTOR));
+    }
+
+    private void allocate(int capacity)
+    {
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.nullBits = new long[(capacity + 63) >>> 6];
+    }
+
+    public void put(long key, long value)
+    {
+        this.put(key, value, false);
+    }
+
+    public void putNull(long key)
+    {
+        this.put(key, 0, true);
+    }
+
+    private void put(long key, long value, boolean isNull)
+    {
+        if (key == 0)
+        {
+            if (!this.hasZeroKey)
+                this.size++;
+
+            this.hasZeroKey = true;
+            this.zeroValue = value;
+            this.zeroNull = isNull;
+            return;
+        }
+
+        var slot = this.findSlot(key);
+
+        if (this.keys[slot] == 0)
+        {
+            this.keys[slot] = key;
+            this.size++;
+        }
+
+        this.values[slot] = value;
+        this.setNull(slot, isNull);
+
+        if (this.size > this.keys.length * LOAD_FACTOR)
+            this.rehash(this.keys.length * 2);
+    }
+
+    /**
+     * @return the value, or the default value when the key is absent or its value is null
+     */
+    public long get(long key, long defaultValue)
+    {
+        if (key == 0)
+            return this.hasZeroKey && !this.zeroNull ? this.zeroValue : defaultValue;
+
+        var slot = this.findSlot(key);
+
+        if (this.keys[slot] == 0 || this.isNullSlot(slot))
+            return defaultValue;
+
+        return this.values[slot];
+    }
+
+    public boolean containsKey(long key)
+    {
+        if (key == 0)
+            return this.hasZeroKey;
+
+        return this.keys[this.findSlot(key)] != 0;
+    }
+
+    /**
+     * @return whether the key is present with a null value
+     */
+    public boolean isNull(long key)
+    {
+        if (key == 0)
+            return this.hasZeroKey && this.zeroNull;
+
+        var slot = this.findSlot(key);
+        return this.keys[slot] != 0 && this.isNullSlot(slot);
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Calls the consumer for every key with a non-null value, in no particular order.
+     */
+    public void forEach(LongLongConsumer consumer)
+    {
+        if (this.hasZeroKey && !this.zeroNull)
+            consumer.accept(0, this.zeroValue);
+
+        for (int i = 0; i < this.keys.length; i++)
+        {
+            if (this.keys[i] != 0 && !this.isNullSlot(i))
+                consumer.accept(this.keys[i], this.values[i]);
+        }
+    }
+
+    /**
+     * Combines the value with the existing one, or stores it as is when the key is absent or null.
+     */
+    public void merge(long key, long value, LongBinaryOperator remapping)
+    {
+        this.put(key, this.containsKey(key) && !this.isNull(key) ? remapping.applyAsLong(this.get(key, 0), value) : value);
+    }
+
+    private int findSlot(long key)
+    {
+        var mask = this.keys.length - 1;
+        var slot = OpenAddressing.mix(key) & mask;
+
+        while (this.keys[slot] != 0 && this.keys[slot] != key)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    private boolean isNullSlot(int slot)
+    {
+        return (this.nullBits[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private void setNull(int slot, boolean isNull)
+    {
+        if (isNull)
+            this.nullBits[slot >>> 6] |= 1L << slot;
+        else
+            this.nullBits[slot >>> 6] &= ~(1L << slot);
+    }
+
+    private void rehash(int capacity)
+    {
+        var oldKeys = this.keys;
+        var oldValues = this.values;
+        var oldNullBits = this.nullBits;
+
+        this.allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            var key = oldKeys[i];
+
+            if (key == 0)
+                continue;
+
+            var slot = this.findSlot(key);
+            this.keys[slot] = key;
+            this.values[slot] = oldValues[i];
+            this.setNull(slot, (oldNullBits[i >>> 6] & (1L << i)) != 0);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        var sb = new StringBuilder("{");
+
+        this.forEach((key, value) -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+
+            sb.append(key).append('=').append(value);
+        });
+
+        return sb.append('}').toString();
+    }
+
+    @FunctionalInterface
+    public interface LongLongConsumer
+    {
+        void accept(long key, long value);
+    }
+}
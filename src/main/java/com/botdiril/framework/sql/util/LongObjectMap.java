@@ -0,0 +1,165 @@
+package com.botdiril.framework.sql.util;
+
+import java.util.Objects;
+
+/**
+ * An open-addressing hash map of primitive {@code long} keys to object values, storing no key boxes or entry objects.
+ *
+ * Values may be null, {@link #containsKey(long)} tells a null value apart from an absent key.
+ */
+public final class LongObjectMap<V>
+{
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /**
+     * Zero marks free slots, the zero key is stored aside.
+     */
+    private long[] keys;
+    private Object[] values;
+    private int size;
+
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public LongObjectMap()
+    {
+        this(16);
+    }
+
+    public LongObjectMap(int expectedSize)
+    {
+        var capacity = OpenAddressing.capacityFor(expectedSize, LOAD_FACTOR);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+    }
+
+    public void put(long key, V value)
+    {
+        if (key == 0)
+        {
+            if (!this.hasZeroKey)
+                this.size++;
+
+            this.hasZeroKey = true;
+            this.zeroValue = value;
+            return;
+        }
+
+        var slot = this.findSlot(key);
+
+        if (this.keys[slot] == 0)
+        {
+            this.keys[slot] = key;
+            this.size++;
+        }
+
+        this.values[slot] = value;
+
+        if (this.size > this.keys.length * LOAD_FACTOR)
+            this.rehash(this.keys.length * 2);
+    }
+
+    /**
+     * @return the value, or null when the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key)
+    {
+        if (key == 0)
+            return this.zeroValue;
+
+        return (V) this.values[this.findSlot(key)];
+    }
+
+    public V getOrDefault(long key, V defaultValue)
+    {
+        return this.containsKey(key) ? this.get(key) : defaultValue;
+    }
+
+    public boolean containsKey(long key)
+    {
+        if (key == 0)
+            return this.hasZeroKey;
+
+        return this.keys[this.findSlot(key)] != 0;
+    }
+
+    public int size()
+    {
+        return this.size;
+    }
+
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Calls the consumer for every entry, in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(LongObjectConsumer<? super V> consumer)
+    {
+        if (this.hasZeroKey)
+            consumer.accept(0, this.zeroValue);
+
+        for (int i = 0; i < this.keys.length; i++)
+        {
+            if (this.keys[i] != 0)
+                consumer.accept(this.keys[i], (V) this.values[i]);
+        }
+    }
+
+    private int findSlot(long key)
+    {
+        var mask = this.keys.length - 1;
+        var slot = OpenAddressing.mix(key) & mask;
+
+        while (this.keys[slot] != 0 && this.keys[slot] != key)
+            slot = (slot + 1) & mask;
+
+        return slot;
+    }
+
+    private void rehash(int capacity)
+    {
+        var oldKeys = this.keys;
+        var oldValues = this.values;
+
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            var key = oldKeys[i];
+
+            if (key == 0)
+                continue;
+
+            var slot = this.findSlot(key);
+            this.keys[slot] = key;
+            this.values[slot] = oldValues[i];
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        var sb = new StringBuilder("{");
+
+        this.forEach((key, value) -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+
+            sb.append(key).append('=').append(Objects.toString(value));
+        });
+
+        return sb.append('}').toString();
+    }
+
+    @FunctionalInterface
+    public interface LongObjectConsumer<V>
+    {
+        void accept(long key, V value);
+    }
+}
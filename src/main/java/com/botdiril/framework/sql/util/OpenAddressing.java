@@ -0,0 +1,38 @@
+package com.botdiril.framework.sql.util;
+
+/**
+ * Shared sizing and hashing of the open-addressing primitive maps.
+ */
+final class OpenAddressing
+{
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private OpenAddressing()
+    {
+    }
+
+    /**
+     * @return a power of two capacity holding the expected number of keys below the load factor
+     */
+    static int capacityFor(int expectedSize, float loadFactor)
+    {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("The expected size cannot be negative.");
+
+        var required = (long) Math.ceil(Math.max(expectedSize, 2) / (double) loadFactor);
+
+        if (required > MAX_CAPACITY)
+            throw new IllegalArgumentException("The expected size %d is too large.".formatted(expectedSize));
+
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    /**
+     * Spreads sequential ids over the table, linear probing clusters badly on them otherwise.
+     */
+    static int mix(long key)
+    {
+        var h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
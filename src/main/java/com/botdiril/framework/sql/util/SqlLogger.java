@@ -13,19 +13,39 @@ public class SqlLogger
 {
     public static final Logger instance;
 
+    public static final Logger slowQueryLog;
+
     static
     {
         instance = LogManager.getLogger("SQL Logger");
         instance.atLevel(Level.DEBUG);
+
+        slowQueryLog = LogManager.getLogger("SQL Slow Query Log");
     }
 
     public static void logStatement(PreparedStatement stat) throws SQLException
+    {
+        // Rendering the statement is expensive, bail out before touching it
+        if (!instance.isDebugEnabled())
+            return;
+
+        var sql = renderStatement(stat);
+
+        if (sql != null)
+            instance.debug("Executing SQL: {}", sql);
+    }
+
+    /**
+     * @return the SQL with the bound parameters inlined, or null if the statement is not a MySQL prepared statement
+     */
+    public static String renderStatement(PreparedStatement stat) throws SQLException
     {
         if (stat instanceof NewProxyPreparedStatement npps)
-        {
-            var cps = (ClientPreparedStatement) npps.unwrap(ClientPreparedStatement.class);
-            var sql = cps.asSql();
-            instance.debug("Executing SQL: " + sql);
-        }
+            return ((ClientPreparedStatement) npps.unwrap(ClientPreparedStatement.class)).asSql();
+
+        if (stat instanceof ClientPreparedStatement cps)
+            return cps.asSql();
+
+        return null;
     }
 }
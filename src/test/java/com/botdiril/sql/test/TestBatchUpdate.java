@@ -0,0 +1,74 @@
+package com.botdiril.sql.test;
+
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestBatchUpdate
+{
+    private static final int ROWS = 20_000;
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            var rows = IntStream.range(0, ROWS)
+                                .mapToObj(i -> new Object[] { "BatchType" + i })
+                                .toList();
+
+            try (var db = cm.get())
+            {
+                var start = System.nanoTime();
+
+                for (var row : rows)
+                    db.simpleUpdate("INSERT INTO `b50_data`.`object_types`(`ot_name`) VALUES (?)", row);
+
+                db.commit();
+
+                var elapsed = System.nanoTime() - start;
+                System.out.printf("Per-row: %d rows in %d ms, %.0f rows/s%n", ROWS, elapsed / 1_000_000, ROWS / (elapsed / 1e9));
+            }
+
+            try (var db = cm.get())
+            {
+                var start = System.nanoTime();
+
+                db.batchUpdate("INSERT INTO `b50_data`.`object_types`(`ot_name`) VALUES (?)", rows);
+                db.commit();
+
+                var elapsed = System.nanoTime() - start;
+                System.out.printf("Batched: %d rows in %d ms, %.0f rows/s%n", ROWS, elapsed / 1_000_000, ROWS / (elapsed / 1e9));
+            }
+
+            var table = modelManager.getModel("b50_data").getTable("object_types");
+
+            // The auto-increment id and the defaulted creation time are left out
+            var tableRows = IntStream.range(0, ROWS)
+                                     .mapToObj(i -> new Object[] { null, "BatchType" + i, null })
+                                     .toList();
+
+            try (var db = cm.get())
+            {
+                var start = System.nanoTime();
+
+                table.insertAll(db, tableRows);
+                db.commit();
+
+                var elapsed = System.nanoTime() - start;
+                System.out.printf("Multi-row: %d rows in %d ms, %.0f rows/s%n", ROWS, elapsed / 1_000_000, ROWS / (elapsed / 1e9));
+            }
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'BatchType%'");
+                db.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.botdiril.sql.test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.util.BlobParam;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestBlobStreaming
+{
+    private static final int SIZE = 8 * 1024 * 1024;
+
+    public static void main(String[] args) throws Exception
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            var data = new byte[SIZE];
+            ThreadLocalRandom.current().nextBytes(data);
+
+            var source = Files.createTempFile("blob-source", ".bin");
+            var target = Files.createTempFile("blob-target", ".bin");
+
+            try (var db = cm.get())
+            {
+                db.simpleExecute("CREATE TEMPORARY TABLE `b50_data`.`blob_test` (`bt_id` INT PRIMARY KEY, `bt_data` LONGBLOB)");
+
+                Files.write(source, data);
+
+                db.simpleUpdate("INSERT INTO `b50_data`.`blob_test` VALUES (?, ?)", 1, BlobParam.of(ByteBuffer.wrap(data)));
+                db.simpleUpdate("INSERT INTO `b50_data`.`blob_test` VALUES (?, ?)", 2, BlobParam.ofFile(source));
+                db.simpleUpdate("INSERT INTO `b50_data`.`blob_test` VALUES (?, ?)", 3, BlobParam.of(ByteBuffer.wrap(new byte[] { 1, 2, 3 })));
+
+                var buffer = ByteBuffer.allocateDirect(SIZE);
+                var read = db.readBlob("SELECT `bt_data` FROM `b50_data`.`blob_test` WHERE `bt_id` = ?", "bt_data", buffer, 1);
+                var copy = new byte[read];
+                buffer.flip().get(copy);
+                System.out.printf("Buffer: %d bytes, intact: %b%n", read, Arrays.equals(copy, data));
+
+                var written = db.readBlob("SELECT `bt_data` FROM `b50_data`.`blob_test` WHERE `bt_id` = ?", "bt_data", target, 2);
+                System.out.printf("File: %d bytes, intact: %b%n", written, Arrays.equals(Files.readAllBytes(target), data));
+
+                var small = db.getValue("SELECT `bt_data` FROM `b50_data`.`blob_test` WHERE `bt_id` = ?", "bt_data", byte[].class, 3);
+                System.out.printf("Small value: %s%n", small.map(Arrays::toString).orElse("missing"));
+
+                db.rollback();
+            }
+            finally
+            {
+                Files.deleteIfExists(source);
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+}
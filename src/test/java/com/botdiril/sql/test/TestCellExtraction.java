@@ -0,0 +1,77 @@
+package com.botdiril.sql.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestCellExtraction
+{
+    private static final int ROWS = 100_000;
+    private static final int ITERATIONS = 20;
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            try (var db = cm.get())
+            {
+                var rows = IntStream.range(0, ROWS)
+                                    .mapToObj(i -> new Object[] { "ExtractionType" + i })
+                                    .toList();
+
+                db.batchUpdate("INSERT INTO `b50_data`.`object_types`(`ot_name`) VALUES (?)", rows);
+                db.commit();
+            }
+
+            var sql = "SELECT `ot_id`, `ot_name` FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'ExtractionType%'";
+
+            try (var db = cm.getReadOnly())
+            {
+                // Includes the driver's own row decoding, the difference between these is the extraction overhead
+                profile("getLongArray", () -> db.getLongArray(sql, "ot_id"));
+                profile("getList", () -> db.getList(sql, "ot_id", Long.class));
+                profile("getMap", () -> db.getMap(sql, "ot_id", Long.class, "ot_name", String.class));
+                profile("getPairs", () -> db.getPairs(sql, "ot_id", Long.class, "ot_name", String.class));
+                profile("stream", () -> {
+                    try (var stream = db.stream(sql, "ot_id", Long.class))
+                    {
+                        return stream.count();
+                    }
+                });
+            }
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'ExtractionType%'");
+                db.commit();
+            }
+        }
+    }
+
+    private static void profile(String name, Supplier<?> retrieval)
+    {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < ITERATIONS; i++)
+            retrieval.get();
+
+        var allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        var start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++)
+            retrieval.get();
+
+        var elapsed = System.nanoTime() - start;
+        var allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%s: %.1f ms/op, %.1f bytes allocated/row%n", name, elapsed / 1e6 / ITERATIONS, allocated / (double) ITERATIONS / ROWS);
+    }
+}
@@ -0,0 +1,73 @@
+package com.botdiril.sql.test;
+
+import java.math.BigDecimal;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestColumnar
+{
+    private static final int ROWS = 200_000;
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            try (var db = cm.get())
+            {
+                var rows = IntStream.range(0, ROWS)
+                                    .mapToObj(i -> new Object[] { "ColumnarType" + (i % 100) })
+                                    .toList();
+
+                db.batchUpdate("INSERT INTO `b50_data`.`object_types`(`ot_name`) VALUES (?)", rows);
+                db.commit();
+            }
+
+            var sql = "SELECT `ot_id`, `ot_name` FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'ColumnarType%'";
+
+            try (var db = cm.getReadOnly())
+            {
+                var start = System.nanoTime();
+
+                var batch = db.getColumnar(sql);
+                var ids = batch.getLongVector("ot_id");
+                var names = batch.getStringVector("ot_name");
+
+                var selection = names.filter(name -> name.endsWith("7"));
+
+                System.out.printf("Columnar: %d rows, %d distinct names, id range %d..%d, sum of ids named *7: %d in %.1f ms%n",
+                    batch.getRowCount(), names.getDictionary().length, ids.min().orElseThrow(), ids.max().orElseThrow(), ids.sum(selection),
+                    (System.nanoTime() - start) / 1e6);
+
+                start = System.nanoTime();
+
+                var sum = db.getRows(sql)
+                            .stream()
+                            .filter(row -> row.getValue("ot_name", String.class).orElseThrow().endsWith("7"))
+                            .mapToLong(row -> row.getValue("ot_id", Long.class).orElseThrow())
+                            .sum();
+
+                System.out.printf("Row-based: sum of ids named *7: %d in %.1f ms%n", sum, (System.nanoTime() - start) / 1e6);
+
+                // Unsigned BIGINT values above Long.MAX_VALUE are read as decimals
+                var unsigned = db.getColumnar("SELECT CAST(18446744073709551615 AS UNSIGNED) AS `max_unsigned`");
+                var maxUnsigned = unsigned.getDecimalVector("max_unsigned").get(0);
+
+                if (!maxUnsigned.equals(new BigDecimal("18446744073709551615")))
+                    throw new AssertionError("Expected the maximum unsigned BIGINT, got " + maxUnsigned);
+            }
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'ColumnarType%'");
+                db.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.botdiril.sql.test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.connection.SqlConnectionManager;
+import com.botdiril.framework.sql.connection.metrics.SqlMetrics;
+
+public class TestDeadlockRetry
+{
+    private static final int TRANSFERS = 200;
+
+    public static void main(String[] args) throws Exception
+    {
+        var metrics = new SqlMetrics("deadlock-test");
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test")
+            .withMetricsListener(metrics);
+
+        try (var cm = new SqlConnectionManager(cfg))
+        {
+            cm.inTransaction(db -> {
+                db.simpleExecute("CREATE TABLE IF NOT EXISTS `deadlock_test` (`id` INT PRIMARY KEY, `balance` BIGINT NOT NULL)");
+                db.simpleUpdate("REPLACE INTO `deadlock_test`(`id`, `balance`) VALUES (1, 0), (2, 0)");
+                return null;
+            });
+
+            var start = new CountDownLatch(1);
+
+            // Two opposite lock orders make InnoDB pick deadlock victims all the time
+            var futures = IntStream.range(0, TRANSFERS)
+                                   .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                                       try
+                                       {
+                                           start.await();
+                                       }
+                                       catch (InterruptedException e)
+                                       {
+                                           throw new RuntimeException(e);
+                                       }
+
+                                       var first = i % 2 + 1;
+                                       var second = 3 - first;
+
+                                       cm.inTransaction(db -> {
+                                           db.simpleUpdate("UPDATE `deadlock_test` SET `balance` = `balance` - 1 WHERE `id` = ?", first);
+                                           db.simpleUpdate("UPDATE `deadlock_test` SET `balance` = `balance` + 1 WHERE `id` = ?", second);
+                                           return null;
+                                       });
+                                   }))
+                                   .toArray(CompletableFuture<?>[]::new);
+
+            start.countDown();
+
+            var failed = 0;
+
+            for (var future : futures)
+            {
+                try
+                {
+                    future.join();
+                }
+                catch (RuntimeException e)
+                {
+                    failed++;
+                }
+            }
+
+            System.out.println("================");
+            System.out.printf("Failed transfers: %d of %d%n", failed, TRANSFERS);
+            System.out.println(metrics.snapshot());
+            System.out.println("================");
+
+            cm.inTransaction(db -> db.simpleExecute("DROP TABLE `deadlock_test`"));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.botdiril.sql.test;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.connection.SqlConnectionManager;
+import com.botdiril.framework.sql.orm.ModelColumn;
+import com.botdiril.framework.sql.orm.ModelTable;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+import com.botdiril.sql.test.schema.SchemaBotdirilData.TableCachedEntities;
+
+public class TestEntityCache
+{
+    private static final int ROWS = 20_000;
+    private static final int LOOKUPS = 200_000;
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+            var table = modelManager.getModel("b50_data").getTable("cached_entities");
+
+            // Columns: id, name, score
+            var rows = IntStream.range(0, ROWS)
+                                .mapToObj(i -> new Object[] { (long) i, "Entity" + i, (long) i * 10 })
+                                .toList();
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`cached_entities`");
+                table.insertAll(db, rows);
+                db.commit();
+            }
+
+            verifyIsolation(cm, table);
+            measure(cm, table);
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`cached_entities`");
+                db.commit();
+            }
+
+            table.getEntityCache().invalidateAll();
+        }
+    }
+
+    private static void verifyIsolation(SqlConnectionManager cm, ModelTable<?> table)
+    {
+        var name = Map.<ModelColumn<?>, Object>of(TableCachedEntities.name, "Uncommitted");
+
+        try (var reader = cm.getReadOnly())
+        {
+            expect("initial read", "Entity1", table.findById(reader, 1L).orElseThrow()[1]);
+
+            try (var db = cm.get())
+            {
+                table.updateById(db, 1L, name);
+
+                expect("own write inside the transaction", "Uncommitted", table.findById(db, 1L).orElseThrow()[1]);
+                expect("concurrent read during the transaction", "Entity1", table.findById(reader, 1L).orElseThrow()[1]);
+
+                db.rollback();
+            }
+
+            expect("read after a rollback", "Entity1", table.findById(reader, 1L).orElseThrow()[1]);
+
+            try (var db = cm.get())
+            {
+                table.updateById(db, 2L, name);
+                table.findById(db, 2L);
+            }
+
+            expect("read after an implicit rollback", "Entity2", table.findById(reader, 2L).orElseThrow()[1]);
+
+            try (var db = cm.get())
+            {
+                table.findById(reader, 3L);
+                table.updateById(db, 3L, Map.of(TableCachedEntities.name, "Committed"));
+                db.commit();
+            }
+
+            expect("read after a commit", "Committed", table.findById(reader, 3L).orElseThrow()[1]);
+        }
+
+        System.out.println("Transactions never expose uncommitted rows through the entity cache.");
+    }
+
+    private static void measure(SqlConnectionManager cm, ModelTable<?> table)
+    {
+        var cache = table.getEntityCache();
+        var random = new SplittableRandom(42);
+
+        try (var db = cm.getReadOnly())
+        {
+            // Warm up both tiers, most rows end up off-heap
+            for (int i = 0; i < ROWS; i++)
+                table.findById(db, (long) i);
+
+            var hitsBefore = cache.getHits();
+            var offHeapHitsBefore = cache.getOffHeapHits();
+            var missesBefore = cache.getMisses();
+            var gcCountBefore = getGcCount();
+            var gcTimeBefore = getGcTime();
+
+            var start = System.nanoTime();
+
+            for (int i = 0; i < LOOKUPS; i++)
+                table.findById(db, random.nextLong(ROWS));
+
+            var elapsed = System.nanoTime() - start;
+
+            System.out.printf("%d lookups in %d ms, %.0f ns/op%n", LOOKUPS, elapsed / 1_000_000, (double) elapsed / LOOKUPS);
+            System.out.printf("Heap hits: %d, off-heap hits: %d, misses: %d%n",
+                cache.getHits() - hitsBefore, cache.getOffHeapHits() - offHeapHitsBefore, cache.getMisses() - missesBefore);
+            System.out.printf("Heap rows: %d, off-heap rows: %d, off-heap slots: %d KiB of %d KiB reserved%n",
+                cache.getHeapSize(), cache.getOffHeapSize(), cache.getOffHeapBytes() / 1024, cache.getOffHeapReservedBytes() / 1024);
+            System.out.printf("GC: %d collections, %d ms%n", getGcCount() - gcCountBefore, getGcTime() - gcTimeBefore);
+        }
+    }
+
+    private static long getGcCount()
+    {
+        return ManagementFactory.getGarbageCollectorMXBeans()
+                                .stream()
+                                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                                .sum();
+    }
+
+    private static long getGcTime()
+    {
+        return ManagementFactory.getGarbageCollectorMXBeans()
+                                .stream()
+                                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                                .sum();
+    }
+
+    private static void expect(String what, Object expected, Object actual)
+    {
+        if (!Objects.equals(expected, actual))
+            throw new AssertionError("%s: expected %s, got %s".formatted(what, expected, actual));
+    }
+}
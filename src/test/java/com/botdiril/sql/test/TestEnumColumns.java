@@ -0,0 +1,85 @@
+package com.botdiril.sql.test;
+
+import java.util.EnumSet;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestEnumColumns
+{
+    private static final int ROWS = 100_000;
+    private static final int ITERATIONS = 10;
+
+    public enum Rarity
+    {
+        COMMON, UNCOMMON, RARE, LEGENDARY
+    }
+
+    public enum Flag
+    {
+        TRADABLE, CRAFTABLE, SELLABLE, GIFTABLE, LIMITED, SEASONAL
+    }
+
+    public record FlagRow(Rarity ft_rarity, EnumSet<Flag> ft_flags) { }
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            try (var db = cm.get())
+            {
+                db.simpleExecute("""
+                    CREATE TEMPORARY TABLE `b50_data`.`flag_test` (
+                      `ft_id` INT PRIMARY KEY AUTO_INCREMENT,
+                      `ft_rarity` ENUM('COMMON','UNCOMMON','RARE','LEGENDARY'),
+                      `ft_flags` SET('TRADABLE','CRAFTABLE','SELLABLE','GIFTABLE','LIMITED','SEASONAL')
+                    )
+                    """);
+
+                var rarities = Rarity.values();
+                var flags = Flag.values();
+
+                var rows = IntStream.range(0, ROWS)
+                                    .mapToObj(i -> {
+                                        var set = EnumSet.noneOf(Flag.class);
+
+                                        for (var flag : flags)
+                                        {
+                                            if ((i >> flag.ordinal() & 1) != 0)
+                                                set.add(flag);
+                                        }
+
+                                        return new Object[] { rarities[i % rarities.length], set };
+                                    })
+                                    .toList();
+
+                db.batchUpdate("INSERT INTO `b50_data`.`flag_test`(`ft_rarity`, `ft_flags`) VALUES (?, ?)", rows);
+
+                var first = db.getRecord("SELECT `ft_rarity`, `ft_flags` FROM `b50_data`.`flag_test` WHERE `ft_id` = ?", FlagRow.class, 8);
+                System.out.printf("Row 8: %s%n", first.orElseThrow());
+
+                var start = System.nanoTime();
+
+                for (int i = 0; i < ITERATIONS; i++)
+                    db.getRecordList("SELECT `ft_rarity`, `ft_flags` FROM `b50_data`.`flag_test`", FlagRow.class);
+
+                System.out.printf("Comma-joined names: %.1f ms/op%n", (System.nanoTime() - start) / 1e6 / ITERATIONS);
+
+                start = System.nanoTime();
+
+                for (int i = 0; i < ITERATIONS; i++)
+                    db.getRecordList("SELECT `ft_rarity`, `ft_flags` + 0 AS `ft_flags` FROM `b50_data`.`flag_test`", FlagRow.class);
+
+                System.out.printf("Bitmask: %.1f ms/op%n", (System.nanoTime() - start) / 1e6 / ITERATIONS);
+
+                db.rollback();
+            }
+        }
+    }
+}
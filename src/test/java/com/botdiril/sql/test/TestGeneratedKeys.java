@@ -0,0 +1,77 @@
+package com.botdiril.sql.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.connection.WriteDBConnection;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestGeneratedKeys
+{
+    // Spans several multi-row statements
+    private static final int ROWS = 2_500;
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+            var table = modelManager.getModel("b50_data").getTable("object_types");
+
+            try (var db = cm.get())
+            {
+                var lockMode = db.query("SELECT @@innodb_autoinc_lock_mode", rs -> rs.next() ? rs.getInt(1) : -1);
+                System.out.printf("innodb_autoinc_lock_mode = %d%n", lockMode);
+
+                // Columns: id, name, time_created
+                var rows = IntStream.range(0, ROWS)
+                                    .mapToObj(i -> new Object[] { null, "KeyType" + i, null })
+                                    .toList();
+
+                var keys = table.insertAllReturningKeys(db, rows);
+                verify(db, "generated keys", rows, keys);
+
+                // An explicit key forces row-by-row inserts, the other keys must still match their rows
+                var explicitKey = keys[keys.length - 1] + 1000;
+
+                var mixedRows = new ArrayList<Object[]>();
+
+                for (int i = 0; i < 50; i++)
+                    mixedRows.add(new Object[] { i == 10 ? explicitKey : null, "KeyTypeMixed" + i, null });
+
+                var mixedKeys = table.insertAllReturningKeys(db, mixedRows);
+
+                if (mixedKeys[10] != explicitKey)
+                    throw new AssertionError("Expected the explicit key %d, got %d".formatted(explicitKey, mixedKeys[10]));
+
+                verify(db, "mixed keys", mixedRows, mixedKeys);
+
+                db.rollback();
+            }
+
+            System.out.println("All generated keys match their rows.");
+        }
+    }
+
+    private static void verify(WriteDBConnection db, String what, List<Object[]> rows, long[] keys)
+    {
+        if (keys.length != rows.size())
+            throw new AssertionError("%s: expected %d keys, got %d".formatted(what, rows.size(), keys.length));
+
+        var names = db.getMap("SELECT `ot_id`, `ot_name` FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'KeyType%'", "ot_id", Long.class, "ot_name", String.class);
+
+        for (int i = 0; i < keys.length; i++)
+        {
+            var expected = rows.get(i)[1];
+            var actual = names.get(keys[i]);
+
+            if (!expected.equals(actual))
+                throw new AssertionError("%s: key %d of row %d belongs to %s, expected %s".formatted(what, keys[i], i, actual, expected));
+        }
+    }
+}
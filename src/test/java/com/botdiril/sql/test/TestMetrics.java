@@ -0,0 +1,50 @@
+package com.botdiril.sql.test;
+
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.connection.SqlConnectionManager;
+import com.botdiril.framework.sql.connection.metrics.SqlMetrics;
+
+public class TestMetrics
+{
+    public static void main(String[] args) throws Exception
+    {
+        var metrics = new SqlMetrics("test");
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test")
+            .withMetricsListener(metrics);
+
+        try (var cm = new SqlConnectionManager(cfg))
+        {
+            try (var db = cm.get())
+            {
+                db.simpleExecute("CREATE TEMPORARY TABLE `metrics_test` (`id` INT PRIMARY KEY, `value` INT)");
+
+                var rows = IntStream.range(0, 1_000)
+                                    .mapToObj(i -> new Object[] { i, i * 2 })
+                                    .toList();
+
+                db.batchUpdate("INSERT INTO `metrics_test`(`id`, `value`) VALUES (?, ?)", rows);
+
+                for (int i = 0; i < 100; i++)
+                    db.simpleUpdate("UPDATE `metrics_test` SET `value` = `value` + 1 WHERE `id` = ?", i);
+
+                db.getList("SELECT `value` FROM `metrics_test`", "value", Integer.class);
+                db.commit();
+
+                db.simpleUpdate("DELETE FROM `metrics_test`");
+                db.rollback();
+            }
+
+            for (int i = 0; i < 100; i++)
+            {
+                try (var db = cm.getReadOnly())
+                {
+                    db.hasRow("SELECT 1");
+                }
+            }
+
+            System.out.println(metrics.snapshot());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.botdiril.sql.test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.connection.SqlConnectionManager;
+import com.botdiril.framework.sql.connection.pool.ConnectionPoolFactory;
+
+public class TestPoolContention
+{
+    private static final int THREADS = 64;
+    private static final int CHECKOUTS_PER_THREAD = 2_000;
+
+    public static void main(String[] args) throws Exception
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test")
+            .withMaxPoolSize(16);
+
+        run("c3p0", cfg.withConnectionPool(ConnectionPoolFactory.C3P0));
+        run("lightweight", cfg.withConnectionPool(ConnectionPoolFactory.LIGHTWEIGHT));
+    }
+
+    private static void run(String name, SqlConnectionConfig cfg) throws Exception
+    {
+        try (var cm = new SqlConnectionManager(cfg))
+        {
+            // Warm up the pool
+            for (int i = 0; i < cfg.maxPoolSize(); i++)
+            {
+                try (var db = cm.getReadOnly())
+                {
+                    db.hasRow("SELECT 1");
+                }
+            }
+
+            var latencies = new long[THREADS * CHECKOUTS_PER_THREAD];
+            var executor = Executors.newFixedThreadPool(THREADS);
+            var start = new CountDownLatch(1);
+
+            for (int t = 0; t < THREADS; t++)
+            {
+                var offset = t * CHECKOUTS_PER_THREAD;
+
+                executor.execute(() -> {
+                    try
+                    {
+                        start.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        return;
+                    }
+
+                    for (int i = 0; i < CHECKOUTS_PER_THREAD; i++)
+                    {
+                        var begin = System.nanoTime();
+
+                        try (var db = cm.getReadOnly())
+                        {
+                            db.hasRow("SELECT 1");
+                        }
+
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                });
+            }
+
+            var begin = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.MINUTES);
+            var elapsed = System.nanoTime() - begin;
+
+            Arrays.sort(latencies);
+
+            System.out.printf("%s: %.0f ops/s, p50 %.1f us, p99 %.1f us, p99.9 %.1f us%n",
+                name,
+                latencies.length / (elapsed / 1e9),
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) (latencies.length * 0.99)] / 1e3,
+                latencies[(int) (latencies.length * 0.999)] / 1e3);
+        }
+    }
+}
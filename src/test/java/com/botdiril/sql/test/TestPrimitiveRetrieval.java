@@ -0,0 +1,70 @@
+package com.botdiril.sql.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestPrimitiveRetrieval
+{
+    private static final int ROWS = 200_000;
+    private static final int ITERATIONS = 10;
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            try (var db = cm.get())
+            {
+                var rows = IntStream.range(0, ROWS)
+                                    .mapToObj(i -> new Object[] { "PrimitiveType" + i })
+                                    .toList();
+
+                db.batchUpdate("INSERT INTO `b50_data`.`object_types`(`ot_name`) VALUES (?)", rows);
+                db.commit();
+            }
+
+            var sql = "SELECT `ot_id`, `ot_id` * 2 AS `ot_double` FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'PrimitiveType%'";
+
+            try (var db = cm.getReadOnly())
+            {
+                measure("getList", () -> db.getList(sql, "ot_id", Long.class));
+                measure("getLongArray", () -> db.getLongArray(sql, "ot_id"));
+                measure("getMap", () -> db.getMap(sql, "ot_id", Long.class, "ot_double", Long.class));
+                measure("getLongToLongMap", () -> db.getLongToLongMap(sql, "ot_id", "ot_double"));
+            }
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'PrimitiveType%'");
+                db.commit();
+            }
+        }
+    }
+
+    private static void measure(String name, Supplier<?> retrieval)
+    {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        // Warm up
+        retrieval.get();
+
+        var allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+        var start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++)
+            retrieval.get();
+
+        var elapsed = System.nanoTime() - start;
+        var allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        System.out.printf("%s: %.1f ms/op, %.1f MiB allocated/op%n", name, elapsed / 1e6 / ITERATIONS, allocated / (1024.0 * 1024.0) / ITERATIONS);
+    }
+}
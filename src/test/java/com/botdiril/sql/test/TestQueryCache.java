@@ -0,0 +1,64 @@
+package com.botdiril.sql.test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.QueryCacheConfig;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestQueryCache
+{
+    private static final int ROWS = 1_000;
+    private static final int ITERATIONS = 10_000;
+
+    public record ObjectTypes(Long ot_id, String ot_name, LocalDateTime ot_time_created) { }
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test")
+            .withQueryCache(new QueryCacheConfig(64L * 1024 * 1024, Duration.ofMinutes(5)));
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+            var sql = "SELECT * FROM `b50_data`.`object_types` WHERE `ot_name` LIKE ?";
+
+            try (var db = cm.get())
+            {
+                var rows = IntStream.range(0, ROWS)
+                                    .mapToObj(i -> new Object[] { "CacheType" + i })
+                                    .toList();
+
+                db.batchUpdate("INSERT INTO `b50_data`.`object_types`(`ot_name`) VALUES (?)", rows);
+                db.commit();
+            }
+
+            try (var db = cm.getReadOnly())
+            {
+                var start = System.nanoTime();
+
+                for (int i = 0; i < ITERATIONS; i++)
+                    db.getRecordList(sql, ObjectTypes.class, "CacheType%");
+
+                System.out.printf("Cached: %.3f ms/op%n", (System.nanoTime() - start) / 1e6 / ITERATIONS);
+            }
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'CacheType%'");
+                db.commit();
+            }
+
+            try (var db = cm.getReadOnly())
+            {
+                var remaining = db.getRecordList(sql, ObjectTypes.class, "CacheType%").size();
+                System.out.printf("Rows after the committed delete: %d%n", remaining);
+            }
+
+            System.out.println(cm.getQueryCache().getTotalStats());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.botdiril.sql.test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestRecordMapping
+{
+    private static final int ROWS = 10_000;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    public record ObjectTypes(Long ot_id, String ot_name, LocalDateTime ot_time_created) { }
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            try (var db = cm.get())
+            {
+                var rows = IntStream.range(0, ROWS)
+                                    .mapToObj(i -> new Object[] { "MappingType" + i })
+                                    .toList();
+
+                db.batchUpdate("INSERT INTO `b50_data`.`object_types`(`ot_name`) VALUES (?)", rows);
+                db.commit();
+            }
+
+            try (var db = cm.getReadOnly())
+            {
+                var sql = "SELECT * FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'MappingType%'";
+
+                Runnable mapped = () -> db.getRecordList(sql, ObjectTypes.class);
+
+                Runnable handWritten = () -> db.query(sql, rs -> {
+                    var result = new ArrayList<ObjectTypes>();
+
+                    var idCol = rs.findColumn("ot_id");
+                    var nameCol = rs.findColumn("ot_name");
+                    var timeCol = rs.findColumn("ot_time_created");
+
+                    while (rs.next())
+                        result.add(new ObjectTypes(rs.getLong(idCol), rs.getString(nameCol), rs.getTimestamp(timeCol).toLocalDateTime()));
+
+                    return result;
+                });
+
+                System.out.println("================");
+                System.out.printf("Record mapping: %.2f ms/op%n", measure(mapped));
+                System.out.printf("Hand-written:   %.2f ms/op%n", measure(handWritten));
+                System.out.println("================");
+            }
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`object_types` WHERE `ot_name` LIKE 'MappingType%'");
+                db.commit();
+            }
+        }
+    }
+
+    private static double measure(Runnable op)
+    {
+        for (int i = 0; i < WARMUP; i++)
+            op.run();
+
+        var start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++)
+            op.run();
+
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+}
@@ -0,0 +1,47 @@
+package com.botdiril.sql.test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.connection.SqlConnectionManager;
+import com.botdiril.framework.sql.connection.pool.ReplicaRouter;
+
+/**
+ * Expects two MySQL instances, DB_HOST acting as the primary and DB_REPLICA_HOST as the replica.
+ * Stop the replica while this is running to observe the fallback to the primary.
+ */
+public class TestReplicaRouting
+{
+    public static void main(String[] args) throws Exception
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "mysql")
+            .withReplicas(List.of(System.getenv("DB_REPLICA_HOST")), ReplicaRouter.Balancing.LEAST_IN_FLIGHT);
+
+        try (var cm = new SqlConnectionManager(cfg))
+        {
+            for (int round = 0; round < 30; round++)
+            {
+                Map<String, Integer> servedBy = new TreeMap<>();
+
+                for (int i = 0; i < 100; i++)
+                {
+                    try (var db = cm.getReadOnly())
+                    {
+                        var server = db.getValueOr("SELECT CONCAT(@@hostname, ':', @@port) AS `server`", "server", String.class, "unknown");
+                        servedBy.merge(server, 1, Integer::sum);
+                    }
+                }
+
+                System.out.printf("Round %d: %s%n", round, servedBy);
+
+                cm.getReplicaRouter()
+                  .getReplicas()
+                  .forEach(replica -> System.out.printf("  %s healthy: %s%n", replica.getHost(), replica.isHealthy()));
+
+                Thread.sleep(1000);
+            }
+        }
+    }
+}
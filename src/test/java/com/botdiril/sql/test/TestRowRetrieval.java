@@ -42,6 +42,14 @@ public class TestRowRetrieval
                       .ifPresentOrElse(map -> map.forEach((name, type) -> System.out.printf("  %s - %s%n", name, type.getName())), () -> System.out.println("No row present."));
 
                 System.out.println("================");
+
+                var rows = db.getRows("SELECT * FROM `b50_data`.`object_types` LIMIT 10");
+                rows.forEach(System.out::println);
+
+                try (var stream = db.streamRows("SELECT * FROM `b50_data`.`object_types` WHERE `ot_name` = ?", "RowTestType"))
+                {
+                    System.out.printf("Streamed %d rows.%n", stream.count());
+                }
             }
         }
     }
@@ -0,0 +1,202 @@
+package com.botdiril.sql.test;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.util.HashMap;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.orm.ModelColumn;
+import com.botdiril.framework.sql.orm.column.Column;
+import com.botdiril.framework.sql.orm.column.ForeignKey;
+import com.botdiril.framework.sql.orm.column.NotNull;
+import com.botdiril.framework.sql.orm.column.PrimaryKey;
+import com.botdiril.framework.sql.orm.schema.Schema;
+import com.botdiril.framework.sql.orm.table.Table;
+
+/**
+ * Measures the startup of a large generated model against an empty schema, then against an up-to-date one
+ * with a matching fingerprint and with the schema verification forced.
+ */
+public class TestSchemaStartup
+{
+    private static final String SCHEMA_NAME = "b50_startup";
+    private static final String SCHEMA_CLASS = "com/botdiril/sql/test/generated/SchemaStartup";
+
+    private static final int TABLES = 200;
+    private static final int COLUMNS_PER_TABLE = 10;
+    private static final int WARM_RUNS = 5;
+
+    public static void main(String[] args) throws Exception
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        var schemaKlass = generateSchema();
+
+        var start = System.nanoTime();
+
+        try (var modelManager = SqlEngine.create(cfg, schemaKlass))
+        {
+            var elapsed = System.nanoTime() - start;
+            var tables = modelManager.getModel(SCHEMA_NAME).getTables().size();
+
+            if (tables != TABLES)
+                throw new AssertionError("Expected %d tables, got %d".formatted(TABLES, tables));
+
+            System.out.printf("Cold startup, %d tables with %d columns each: %.1f ms%n", tables, COLUMNS_PER_TABLE, elapsed / 1e6);
+        }
+
+        for (int i = 0; i < WARM_RUNS; i++)
+        {
+            start = System.nanoTime();
+
+            try (var modelManager = SqlEngine.create(cfg, schemaKlass))
+            {
+                System.out.printf("Warm startup #%d, matching fingerprint: %.1f ms%n", i + 1, (System.nanoTime() - start) / 1e6);
+
+                try (var db = modelManager.getConnectionManager().get())
+                {
+                    db.simpleUpdate("DELETE FROM `%s`.`botdiril_schema_fingerprints` WHERE `sf_schema` = ?".formatted(cfg.defaultSchema()), SCHEMA_NAME);
+                    db.commit();
+                }
+            }
+
+            start = System.nanoTime();
+
+            try (var modelManager = SqlEngine.create(cfg, schemaKlass))
+            {
+                var elapsed = System.nanoTime() - start;
+
+                // The verified startup must record the fingerprint again, so the next run can skip verification
+                try (var db = modelManager.getConnectionManager().get())
+                {
+                    var stored = db.getValue("SELECT COUNT(*) AS `cnt` FROM `%s`.`botdiril_schema_fingerprints` WHERE `sf_schema` = ?".formatted(cfg.defaultSchema()), "cnt", Long.class, SCHEMA_NAME);
+
+                    if (stored.orElse(0L) != 1L)
+                        throw new AssertionError("Expected the fingerprint of `%s` to be stored again".formatted(SCHEMA_NAME));
+                }
+
+                System.out.printf("Warm startup #%d, verified: %.1f ms%n", i + 1, elapsed / 1e6);
+            }
+        }
+
+        try (var modelManager = SqlEngine.create(cfg, schemaKlass))
+        {
+            try (var db = modelManager.getConnectionManager().get())
+            {
+                db.simpleExecute("DROP SCHEMA `%s`".formatted(SCHEMA_NAME));
+                db.simpleUpdate("DELETE FROM `%s`.`botdiril_schema_fingerprints` WHERE `sf_schema` = ?".formatted(cfg.defaultSchema()), SCHEMA_NAME);
+                db.commit();
+            }
+        }
+    }
+
+    /**
+     * Generates a schema class with nested table classes, every table after the first referencing its predecessor.
+     */
+    private static Class<?> generateSchema() throws ClassNotFoundException
+    {
+        var classes = new HashMap<String, byte[]>();
+
+        var schemaWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES + ClassWriter.COMPUTE_MAXS);
+        schemaWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC + Opcodes.ACC_SUPER, SCHEMA_CLASS, null, Type.getInternalName(Object.class), null);
+
+        var schemaAnnotation = schemaWriter.visitAnnotation(Type.getDescriptor(Schema.class), true);
+        schemaAnnotation.visit("name", SCHEMA_NAME);
+        schemaAnnotation.visitEnd();
+
+        for (int t = 0; t < TABLES; t++)
+        {
+            var tableClass = tableClassName(t);
+
+            schemaWriter.visitNestMember(tableClass);
+            schemaWriter.visitInnerClass(tableClass, SCHEMA_CLASS, "Table" + t, Opcodes.ACC_PUBLIC + Opcodes.ACC_STATIC);
+
+            classes.put(tableClass.replace('/', '.'), generateTable(t));
+        }
+
+        generateConstructor(schemaWriter);
+        schemaWriter.visitEnd();
+
+        classes.put(SCHEMA_CLASS.replace('/', '.'), schemaWriter.toByteArray());
+
+        var loader = new ClassLoader(TestSchemaStartup.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException
+            {
+                var data = classes.get(name);
+
+                if (data == null)
+                    throw new ClassNotFoundException(name);
+
+                return this.defineClass(name, data, 0, data.length);
+            }
+        };
+
+        return loader.loadClass(SCHEMA_CLASS.replace('/', '.'));
+    }
+
+    private static byte[] generateTable(int idx)
+    {
+        var tableClass = tableClassName(idx);
+
+        var cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES + ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC + Opcodes.ACC_SUPER, tableClass, null, Type.getInternalName(Object.class), null);
+        cw.visitNestHost(SCHEMA_CLASS);
+        cw.visitInnerClass(tableClass, SCHEMA_CLASS, "Table" + idx, Opcodes.ACC_PUBLIC + Opcodes.ACC_STATIC);
+
+        var tableAnnotation = cw.visitAnnotation(Type.getDescriptor(Table.class), true);
+        tableAnnotation.visit("name", "startup_table_" + idx);
+        tableAnnotation.visit("prefix", "st" + idx);
+        tableAnnotation.visitEnd();
+
+        for (int c = 0; c < COLUMNS_PER_TABLE; c++)
+        {
+            var fw = cw.visitField(Opcodes.ACC_PUBLIC + Opcodes.ACC_STATIC, c == 0 ? "id" : "col" + c, Type.getDescriptor(ModelColumn.class), null, null);
+
+            var columnAnnotation = fw.visitAnnotation(Type.getDescriptor(Column.class), true);
+            columnAnnotation.visit("dataType", Type.LONG_TYPE);
+            columnAnnotation.visitEnd();
+
+            if (c == 0)
+            {
+                fw.visitAnnotation(Type.getDescriptor(PrimaryKey.class), true).visitEnd();
+            }
+            else if (c == 1 && idx > 0)
+            {
+                var fkAnnotation = fw.visitAnnotation(Type.getDescriptor(ForeignKey.class), true);
+                fkAnnotation.visit("value", Type.getObjectType(tableClassName(idx - 1)));
+                fkAnnotation.visitEnd();
+            }
+            else
+            {
+                fw.visitAnnotation(Type.getDescriptor(NotNull.class), true).visitEnd();
+            }
+
+            fw.visitEnd();
+        }
+
+        generateConstructor(cw);
+        cw.visitEnd();
+
+        return cw.toByteArray();
+    }
+
+    private static void generateConstructor(ClassWriter cw)
+    {
+        var mw = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), null, null);
+        mw.visitCode();
+        mw.visitVarInsn(Opcodes.ALOAD, 0);
+        mw.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", Type.getMethodDescriptor(Type.VOID_TYPE), false);
+        mw.visitInsn(Opcodes.RETURN);
+        mw.visitMaxs(1, 1);
+        mw.visitEnd();
+    }
+
+    private static String tableClassName(int idx)
+    {
+        return SCHEMA_CLASS + "$Table" + idx;
+    }
+}
@@ -0,0 +1,48 @@
+package com.botdiril.sql.test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.orm.column.ColumnInfo;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+
+public class TestTypeConverters
+{
+    public record Session(UUID se_id, Instant se_started, Duration se_length) { }
+
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        var idColumn = ColumnInfo.of("se_id", UUID.class);
+        var startedColumn = ColumnInfo.of("se_started", Instant.class);
+        var lengthColumn = ColumnInfo.of("se_length", Duration.class);
+
+        System.out.printf("%s, %s, %s%n", idColumn, startedColumn, lengthColumn);
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+
+            try (var db = cm.get())
+            {
+                db.simpleExecute("CREATE TEMPORARY TABLE `b50_data`.`session_test` (%s PRIMARY KEY, %s, %s)".formatted(idColumn, startedColumn, lengthColumn));
+
+                var session = new Session(UUID.randomUUID(), Instant.ofEpochMilli(System.currentTimeMillis()), Duration.ofMinutes(90));
+
+                db.simpleUpdate("INSERT INTO `b50_data`.`session_test` VALUES (?, ?, ?)", session.se_id(), session.se_started(), session.se_length());
+
+                var loaded = db.getRecord("SELECT * FROM `b50_data`.`session_test` WHERE `se_id` = ?", Session.class, session.se_id());
+                System.out.printf("Round trip: %s, equal: %b%n", loaded.orElseThrow(), loaded.orElseThrow().equals(session));
+
+                var id = db.getValue("SELECT `se_id` FROM `b50_data`.`session_test`", "se_id", UUID.class);
+                System.out.printf("Value: %s%n", id.orElseThrow());
+
+                db.rollback();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.botdiril.sql.test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.botdiril.framework.sql.SqlEngine;
+import com.botdiril.framework.sql.connection.SqlConnectionConfig;
+import com.botdiril.framework.sql.orm.MergePolicy;
+import com.botdiril.framework.sql.orm.ModelColumn;
+import com.botdiril.sql.test.schema.SchemaBotdirilData;
+import com.botdiril.sql.test.schema.SchemaBotdirilData.TableMergeCounters;
+
+public class TestUpsertMerge
+{
+    public static void main(String[] args)
+    {
+        var cfg = new SqlConnectionConfig(System.getenv("DB_HOST"), "root", "changeit", "test");
+
+        try (var modelManager = SqlEngine.create(cfg, SchemaBotdirilData.class))
+        {
+            var cm = modelManager.getConnectionManager();
+            var table = modelManager.getModel("b50_data").getTable("merge_counters");
+
+            var policies = Map.<ModelColumn<?>, MergePolicy>of(
+                TableMergeCounters.total, MergePolicy.ADD,
+                TableMergeCounters.best, MergePolicy.MAX,
+                TableMergeCounters.first_seen, MergePolicy.KEEP
+            );
+
+            try (var db = cm.get())
+            {
+                db.simpleUpdate("DELETE FROM `b50_data`.`merge_counters`");
+
+                // Columns: id, total, best, label, first_seen
+                var inserted = table.upsertAll(db, List.of(
+                    new Object[] { 1L, 10L, 10L, "first", 100L },
+                    new Object[] { 2L, 1L, 1L, "other", 100L }
+                ), policies);
+
+                expect("affected rows on insert", 2, inserted);
+
+                var merged = table.upsertAll(db, List.of(
+                    new Object[] { 1L, 5L, 7L, "second", 200L },
+                    new Object[] { 2L, 2L, 9L, "other", 200L },
+                    new Object[] { 3L, 4L, 4L, "new", 300L }
+                ), policies);
+
+                // Two per changed row, one per inserted row
+                expect("affected rows on merge", 5, merged);
+
+                expect("ADD", 15L, db.getValueOrNull("SELECT `mc_total` FROM `b50_data`.`merge_counters` WHERE `mc_id` = 1", "mc_total", Long.class));
+                expect("MAX keeping the existing value", 10L, db.getValueOrNull("SELECT `mc_best` FROM `b50_data`.`merge_counters` WHERE `mc_id` = 1", "mc_best", Long.class));
+                expect("MAX taking the inserted value", 9L, db.getValueOrNull("SELECT `mc_best` FROM `b50_data`.`merge_counters` WHERE `mc_id` = 2", "mc_best", Long.class));
+                expect("OVERWRITE", "second", db.getValueOrNull("SELECT `mc_label` FROM `b50_data`.`merge_counters` WHERE `mc_id` = 1", "mc_label", String.class));
+                expect("KEEP", 100L, db.getValueOrNull("SELECT `mc_first_seen` FROM `b50_data`.`merge_counters` WHERE `mc_id` = 1", "mc_first_seen", Long.class));
+                expect("KEEP on a new row", 300L, db.getValueOrNull("SELECT `mc_first_seen` FROM `b50_data`.`merge_counters` WHERE `mc_id` = 3", "mc_first_seen", Long.class));
+
+                // Only key columns and KEEP columns, duplicates are ignored
+                var ignored = table.upsertAll(db, List.<Object[]>of(new Object[] { 1L, 0L, 0L, "ignored", 0L }), Map.<ModelColumn<?>, MergePolicy>of(
+                    TableMergeCounters.total, MergePolicy.KEEP,
+                    TableMergeCounters.best, MergePolicy.KEEP,
+                    TableMergeCounters.label, MergePolicy.KEEP,
+                    TableMergeCounters.first_seen, MergePolicy.KEEP
+                ));
+
+                // Connector/J reports found rows, so an unchanged row still counts once
+                expect("affected rows of an ignored duplicate", 1, ignored);
+                expect("label after an ignored duplicate", "second", db.getValueOrNull("SELECT `mc_label` FROM `b50_data`.`merge_counters` WHERE `mc_id` = 1", "mc_label", String.class));
+
+                db.rollback();
+            }
+
+            System.out.println("All merge policies behave as expected.");
+        }
+    }
+
+    private static void expect(String what, Object expected, Object actual)
+    {
+        if (!Objects.equals(expected, actual))
+            throw new AssertionError("%s: expected %s, got %s".formatted(what, expected, actual));
+    }
+}
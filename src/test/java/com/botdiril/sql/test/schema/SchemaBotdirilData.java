@@ -7,6 +7,7 @@ import com.botdiril.framework.sql.orm.column.*;
 import com.botdiril.framework.sql.orm.column.defaultvalue.DynamicDefaultValueSupplier;
 import com.botdiril.framework.sql.orm.column.defaultvalue.ExpressionDefaultValueSupplier;
 import com.botdiril.framework.sql.orm.schema.Schema;
+import com.botdiril.framework.sql.orm.table.Cached;
 import com.botdiril.framework.sql.orm.table.Table;
 
 @Schema(name = "b50_data")
@@ -62,4 +63,45 @@ public class SchemaBotdirilData
         @DefaultValue(DynamicDefaultValueSupplier.UTCTimestampNow.class)
         public static ModelColumn<LocalDateTime> time_created;
     }
+
+    @Table(name = "merge_counters", prefix = "mc")
+    public static class TableMergeCounters
+    {
+        @Column(dataType = long.class)
+        @PrimaryKey
+        public static ModelColumn<Long> id;
+
+        @Column(dataType = long.class)
+        @NotNull
+        public static ModelColumn<Long> total;
+
+        @Column(dataType = long.class)
+        @NotNull
+        public static ModelColumn<Long> best;
+
+        @Column(dataType = String.class, bounds = 64)
+        @NotNull
+        public static ModelColumn<String> label;
+
+        @Column(dataType = long.class)
+        @NotNull
+        public static ModelColumn<Long> first_seen;
+    }
+
+    @Table(name = "cached_entities", prefix = "ce")
+    @Cached(maxEntries = 1_000, offHeapBytes = 16 * 1024 * 1024)
+    public static class TableCachedEntities
+    {
+        @Column(dataType = long.class)
+        @PrimaryKey
+        public static ModelColumn<Long> id;
+
+        @Column(dataType = String.class, bounds = 64)
+        @NotNull
+        public static ModelColumn<String> name;
+
+        @Column(dataType = long.class)
+        @NotNull
+        public static ModelColumn<Long> score;
+    }
 }